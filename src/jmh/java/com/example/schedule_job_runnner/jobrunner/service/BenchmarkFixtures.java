@@ -0,0 +1,59 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import com.example.schedule_job_runnner.jobrunner.config.JobLaunchProperties;
+import com.example.schedule_job_runnner.jobrunner.config.RetentionProperties;
+import com.example.schedule_job_runnner.jobrunner.config.StreamProperties;
+import com.example.schedule_job_runnner.jobrunner.repository.JobExecutionHistoryRepository;
+import com.example.schedule_job_runnner.jobrunner.retention.ExecutionArchive;
+import com.example.schedule_job_runnner.jobrunner.stream.ExecutionUpdateHub;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared setup for the benchmarks: a {@link JobService} wired only with what the benchmarked paths use.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static JobService jobService(JobExecutionHistoryRepository historyRepository, JdbcOffloader jdbcOffloader) {
+        LiveExecutionIndex liveExecutions = new LiveExecutionIndex();
+        StreamProperties streamProperties = new StreamProperties();
+        streamProperties.setHeartbeatSeconds(0);
+        ExecutionUpdateHub hub = new ExecutionUpdateHub(streamProperties, liveExecutions);
+        return new JobService(null, null, null, historyRepository, jdbcOffloader, liveExecutions, hub,
+                null, new JobLaunchProperties(), null, null, new ExecutionArchive(new RetentionProperties()));
+    }
+
+    public static Map<String, Object> launchParameters(long launchTime) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("customJobName", "simulatedJob_run_" + launchTime);
+        parameters.put("durationInSeconds", 10L);
+        parameters.put("launchTime", launchTime);
+        return parameters;
+    }
+
+    public static JobExecution runningExecution(long executionId) {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString("customJobName", "simulatedJob_run_" + executionId)
+                .addLong("durationInSeconds", 10L)
+                .addLong("launchTime", 1_700_000_000_000L + executionId)
+                .toJobParameters();
+        JobInstance instance = new JobInstance(executionId, "simulatedJob");
+        JobExecution execution = new JobExecution(instance, executionId, parameters);
+        execution.setStatus(BatchStatus.STARTED);
+        execution.setExitStatus(ExitStatus.EXECUTING);
+        execution.setCreateTime(LocalDateTime.now());
+        execution.setStartTime(LocalDateTime.now());
+        return execution;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of {@code JobService.mapToDTO}, which runs on every launch, listener callback and history row,
+ * and of writing the DTO as JSON. The {@code legacy*} benchmarks keep the previous stream/builder
+ * mapping and reflective serialization as a baseline; run with {@code -prof gc} (the default in
+ * build.gradle) to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JobExecutionMappingBenchmark {
+
+    private JobService jobService;
+    private JobExecution runningExecution;
+    private JobExecution finishedExecution;
+    private BatchJobExecutionInfoDTO dto;
+    private ObjectMapper objectMapper;
+    private ObjectMapper reflectiveObjectMapper;
+
+    @Setup
+    public void setUp() {
+        jobService = BenchmarkFixtures.jobService(null, null);
+        runningExecution = BenchmarkFixtures.runningExecution(42L);
+        finishedExecution = BenchmarkFixtures.runningExecution(43L);
+        finishedExecution.setStatus(BatchStatus.COMPLETED);
+        finishedExecution.setExitStatus(ExitStatus.COMPLETED);
+        finishedExecution.setEndTime(LocalDateTime.now());
+        dto = jobService.mapToDTO(runningExecution);
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        reflectiveObjectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(MapperFeature.USE_ANNOTATIONS)
+                .build();
+    }
+
+    /**
+     * Repeated updates of a running execution: parameters come from the cache.
+     */
+    @Benchmark
+    public BatchJobExecutionInfoDTO mapRunningExecution() {
+        return jobService.mapToDTO(runningExecution);
+    }
+
+    /**
+     * Finished executions are not cached, so this includes converting the parameters.
+     */
+    @Benchmark
+    public BatchJobExecutionInfoDTO mapFinishedExecution() {
+        return jobService.mapToDTO(finishedExecution);
+    }
+
+    @Benchmark
+    public BatchJobExecutionInfoDTO legacyMapToDTO() {
+        JobExecution jobExecution = runningExecution;
+        Map<String, Object> jobParams = jobExecution.getJobParameters().getParameters().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getValue()));
+        return BatchJobExecutionInfoDTO.builder()
+                .executionId(jobExecution.getId())
+                .jobInstanceId(jobExecution.getJobInstance().getInstanceId())
+                .jobName(jobExecution.getJobInstance().getJobName())
+                .status(jobExecution.getStatus().toString())
+                .startTime(jobExecution.getStartTime())
+                .endTime(jobExecution.getEndTime())
+                .exitCode(jobExecution.getExitStatus() != null ? jobExecution.getExitStatus().getExitCode() : null)
+                .exitDescription(jobExecution.getExitStatus() != null ? jobExecution.getExitStatus().getExitDescription() : null)
+                .jobParameters(jobParams)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] legacySerialize() throws Exception {
+        return reflectiveObjectMapper.writeValueAsBytes(dto);
+    }
+}
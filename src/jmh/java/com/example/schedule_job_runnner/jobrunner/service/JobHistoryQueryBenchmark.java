@@ -0,0 +1,111 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import com.example.schedule_job_runnner.jobrunner.config.JdbcSchedulerProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.JobExecutionPageDTO;
+import com.example.schedule_job_runnner.jobrunner.repository.JobExecutionHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the history endpoints against an in-memory H2 job repository seeded with a given number
+ * of executions of one job (plus a second job so the job-name filter has something to skip).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JobHistoryQueryBenchmark {
+
+    private static final String JOB_NAME = "simulatedJob";
+    private static final String OTHER_JOB_NAME = "simulatedJob2";
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int executions;
+
+    private EmbeddedDatabase database;
+    private JdbcOffloader jdbcOffloader;
+    private JobService jobService;
+    private long middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("org/springframework/batch/core/schema-h2.sql")
+                .build();
+        seed(new JdbcTemplate(database));
+
+        JobExecutionHistoryRepository historyRepository =
+                new JobExecutionHistoryRepository(new NamedParameterJdbcTemplate(database), "BATCH_");
+        jdbcOffloader = new JdbcOffloader(new JdbcSchedulerProperties(), new SimpleMeterRegistry());
+        jobService = BenchmarkFixtures.jobService(historyRepository, jdbcOffloader);
+        middleCursor = executions / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcOffloader.destroy();
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<BatchJobExecutionInfoDTO> recentExecutions() {
+        return jobService.getRecentJobExecutionsForJob(JOB_NAME, 10).collectList().block();
+    }
+
+    @Benchmark
+    public JobExecutionPageDTO historyPageDeepCursor() {
+        return jobService.getJobExecutionHistory(JOB_NAME, Set.of(BatchStatus.FAILED), null, null, middleCursor, 50).block();
+    }
+
+    // Every fifth execution belongs to the other job and every tenth failed
+    private void seed(JdbcTemplate jdbc) {
+        LocalDateTime start = LocalDateTime.now().minusSeconds(executions);
+        for (int from = 1; from <= executions; from += SEED_BATCH_SIZE) {
+            int to = Math.min(executions, from + SEED_BATCH_SIZE - 1);
+            List<Object[]> instances = new ArrayList<>();
+            List<Object[]> jobExecutions = new ArrayList<>();
+            List<Object[]> parameters = new ArrayList<>();
+            for (long id = from; id <= to; id++) {
+                String jobName = id % 5 == 0 ? OTHER_JOB_NAME : JOB_NAME;
+                String status = id % 10 == 3 ? "FAILED" : "COMPLETED";
+                Timestamp created = Timestamp.valueOf(start.plusSeconds(id));
+                Timestamp ended = Timestamp.valueOf(start.plusSeconds(id).plusNanos(500_000_000));
+                instances.add(new Object[]{id, 0, jobName, UUID.randomUUID().toString().replace("-", "")});
+                jobExecutions.add(new Object[]{id, 2, id, created, created, ended, status, status, "", ended});
+                parameters.add(new Object[]{id, "customJobName", "java.lang.String", jobName + "_run_" + id});
+                parameters.add(new Object[]{id, "launchTime", "java.lang.Long", String.valueOf(created.getTime())});
+            }
+            jdbc.batchUpdate("INSERT INTO BATCH_JOB_INSTANCE (JOB_INSTANCE_ID, VERSION, JOB_NAME, JOB_KEY) VALUES (?, ?, ?, ?)", instances);
+            jdbc.batchUpdate("INSERT INTO BATCH_JOB_EXECUTION (JOB_EXECUTION_ID, VERSION, JOB_INSTANCE_ID, CREATE_TIME, START_TIME, "
+                    + "END_TIME, STATUS, EXIT_CODE, EXIT_MESSAGE, LAST_UPDATED) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", jobExecutions);
+            jdbc.batchUpdate("INSERT INTO BATCH_JOB_EXECUTION_PARAMS (JOB_EXECUTION_ID, PARAMETER_NAME, PARAMETER_TYPE, "
+                    + "PARAMETER_VALUE, IDENTIFYING) VALUES (?, ?, ?, ?, 'Y')", parameters);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.batch.core.JobParameters;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a launch request's parameter map into {@link JobParameters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LaunchParametersBenchmark {
+
+    private JobService jobService;
+    private Map<String, Object> parameters;
+
+    @Setup
+    public void setUp() {
+        jobService = BenchmarkFixtures.jobService(null, null);
+        parameters = BenchmarkFixtures.launchParameters(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public JobParameters buildJobParameters() {
+        return jobService.buildJobParameters(parameters);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.schedule_job_runnner.jobrunner.stream;
+
+import com.example.schedule_job_runnner.jobrunner.config.StreamProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.service.LiveExecutionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.Disposable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of publishing one execution update to N connected stream subscribers, with and without
+ * coalescing. Subscribers request unbounded and hand every event to a blackhole.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExecutionUpdateFanOutBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int subscribers;
+
+    @Param({"0", "250"})
+    private long coalesceWindowMillis;
+
+    private ExecutionUpdateHub hub;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private BatchJobExecutionInfoDTO[] updates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        StreamProperties properties = new StreamProperties();
+        properties.setCoalesceWindowMillis(coalesceWindowMillis);
+        properties.setHeartbeatSeconds(0);
+        hub = new ExecutionUpdateHub(properties, new LiveExecutionIndex());
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(hub.subscribe(SubscriptionFilter.ALL).subscribe(blackhole::consume));
+        }
+        // A rotating set of executions so coalescing sees both repeated and distinct keys
+        updates = new BatchJobExecutionInfoDTO[64];
+        for (int i = 0; i < updates.length; i++) {
+            updates[i] = BatchJobExecutionInfoDTO.builder()
+                    .executionId((long) i)
+                    .jobInstanceId((long) i)
+                    .jobName("simulatedJob")
+                    .status("STARTED")
+                    .startTime(LocalDateTime.now())
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        hub.destroy();
+    }
+
+    @Benchmark
+    public void publish() {
+        hub.publish(updates[next++ & (updates.length - 1)]);
+    }
+}
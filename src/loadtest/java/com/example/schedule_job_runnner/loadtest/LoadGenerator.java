@@ -0,0 +1,303 @@
+package com.example.schedule_job_runnner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the running application and records what it sees.
+ * <p>
+ * Launches are sent open loop: request {@code i} is due at {@code start + i / rate} and its latency is
+ * measured from that moment, so time spent waiting for a free slot is counted instead of hidden
+ * (no coordinated omission). Each launch runs on its own virtual thread. Every stream subscriber
+ * records how long execution updates took to reach it, and one subscriber, the first whose stream is
+ * still open, also counts finished executions and matches each execution's start time to its launch
+ * for the launch-to-running latency. Stream traffic is counted from the end of the warm-up to the end
+ * of the measured period exactly, by a timer, so the per-second rates are not inflated by launches
+ * still answering after it. All latencies are recorded in microseconds; values derived from repository
+ * timestamps have millisecond resolution.
+ */
+class LoadGenerator {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<JsonNode>> EVENT_TYPE = new ParameterizedTypeReference<>() {
+    };
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final LoadTestSettings settings;
+    private final WebTestClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Histogram launchResponse = new ConcurrentHistogram(3);
+    private final Histogram launchToRunning = new ConcurrentHistogram(3);
+    private final Histogram streamLag = new ConcurrentHistogram(3);
+    private final Histogram dashboardSnapshot = new ConcurrentHistogram(3);
+
+    private final AtomicLong launchesSent = new AtomicLong();
+    private final AtomicLong launchesAccepted = new AtomicLong();
+    private final AtomicLong launchesRejected = new AtomicLong();
+    private final AtomicLong launchesFailed = new AtomicLong();
+    private final AtomicLong snapshotsFailed = new AtomicLong();
+    private final AtomicLong streamEvents = new AtomicLong();
+    private final AtomicLong streamErrors = new AtomicLong();
+    private final AtomicLong executionsFinished = new AtomicLong();
+
+    // Execution id -> epoch millis the launch was due, for measured launches whose start has not been seen
+    private final Map<Long, Long> launchDueMillis = new ConcurrentHashMap<>();
+    // Execution id -> epoch millis of its start time, seen on the stream before the launch answered (or unmeasured)
+    private final Map<Long, Long> startedMillis = new ConcurrentHashMap<>();
+
+    private volatile boolean measuring;
+    // Subscribers whose stream is still open
+    private final Set<Integer> openSubscribers = ConcurrentHashMap.newKeySet();
+    // Counts finished executions and matches starts to launches; -1 once every stream has ended
+    private volatile int matchingSubscriber;
+
+    LoadGenerator(LoadTestSettings settings, WebTestClient client) {
+        this.settings = settings;
+        this.client = client;
+    }
+
+    LoadTestReport run() throws InterruptedException {
+        List<Disposable> subscriptions = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.subscribers(); i++) {
+                int subscriber = i;
+                openSubscribers.add(subscriber);
+                // The stream answers with its first event, so subscribe off the load thread
+                executor.submit(() -> {
+                    Disposable subscription = client.get().uri("/api/jobs/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .exchange()
+                            .returnResult(EVENT_TYPE)
+                            .getResponseBody()
+                            .subscribe(event -> onEvent(subscriber, event), e -> {
+                                // The subscriber sees no further events, so its latencies stop here
+                                streamErrors.incrementAndGet();
+                                System.err.println("Stream subscriber " + subscriber + " failed: " + e);
+                                streamEnded(subscriber);
+                            }, () -> streamEnded(subscriber));
+                    synchronized (subscriptions) {
+                        subscriptions.add(subscription);
+                    }
+                });
+            }
+
+            long startNanos = System.nanoTime();
+            long measureFromNanos = startNanos + settings.warmup().toNanos();
+            long endNanos = measureFromNanos + settings.duration().toNanos();
+            Thread window = Thread.ofVirtual().name("loadtest-window").start(() -> {
+                parkUntil(measureFromNanos);
+                measuring = true;
+                parkUntil(endNanos);
+                measuring = false;
+            });
+            Thread snapshots = settings.snapshotRate() > 0
+                    ? Thread.ofVirtual().name("loadtest-snapshots").start(() -> pollSnapshots(startNanos, measureFromNanos, endNanos))
+                    : null;
+
+            Semaphore slots = new Semaphore(settings.concurrency());
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, settings.rate());
+            for (long i = 0; ; i++) {
+                long dueNanos = startNanos + i * intervalNanos;
+                if (dueNanos >= endNanos) {
+                    break;
+                }
+                parkUntil(dueNanos);
+                boolean measured = dueNanos >= measureFromNanos;
+                slots.acquire();
+                executor.submit(() -> {
+                    try {
+                        launch(dueNanos, measured);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+            slots.acquire(settings.concurrency());
+            if (snapshots != null) {
+                snapshots.join();
+            }
+            // Still matching starts to launches, but no longer counting stream traffic
+            window.join();
+            long drainUntil = System.nanoTime() + settings.drain().toNanos();
+            while (!launchDueMillis.isEmpty() && System.nanoTime() < drainUntil) {
+                Thread.sleep(50);
+            }
+            synchronized (subscriptions) {
+                subscriptions.forEach(Disposable::dispose);
+            }
+        }
+        return new LoadTestReport(settings, launchesSent.get(), launchesAccepted.get(), launchesRejected.get(),
+                launchesFailed.get(), launchDueMillis.size(), snapshotsFailed.get(), streamEvents.get(),
+                streamErrors.get(), executionsFinished.get(), histograms());
+    }
+
+    private Map<String, Histogram> histograms() {
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        histograms.put("launchResponse", launchResponse);
+        histograms.put("launchToRunning", launchToRunning);
+        histograms.put("streamLag", streamLag);
+        histograms.put("dashboardSnapshot", dashboardSnapshot);
+        return histograms;
+    }
+
+    private void launch(long dueNanos, boolean measured) {
+        long dueMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dueNanos);
+        if (measured) {
+            launchesSent.incrementAndGet();
+        }
+        try {
+            EntityExchangeResult<byte[]> result = client.post().uri("/api/jobs/launch/{jobName}", settings.jobName())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("durationMillis", settings.jobDurationMillis()))
+                    .exchange()
+                    .expectBody(byte[].class)
+                    .returnResult();
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueNanos);
+            if (!measured) {
+                return;
+            }
+            int status = result.getStatus().value();
+            if (status == 202) {
+                launchesAccepted.incrementAndGet();
+                launchResponse.recordValue(latencyMicros);
+                long executionId = objectMapper.readTree(result.getResponseBody()).path("executionId").asLong();
+                Long started = startedMillis.remove(executionId);
+                if (started != null) {
+                    recordLaunchToRunning(dueMillis, started);
+                } else {
+                    launchDueMillis.put(executionId, dueMillis);
+                    // The start may have been seen between the lookup and the put
+                    started = startedMillis.remove(executionId);
+                    if (started != null && launchDueMillis.remove(executionId) != null) {
+                        recordLaunchToRunning(dueMillis, started);
+                    }
+                }
+            } else if (status == 429 || status == 503) {
+                // Admission control and repository back-pressure
+                launchesRejected.incrementAndGet();
+            } else {
+                launchesFailed.incrementAndGet();
+            }
+        } catch (Exception e) {
+            if (measured) {
+                launchesFailed.incrementAndGet();
+            }
+        }
+    }
+
+    private void onEvent(int subscriber, ServerSentEvent<JsonNode> event) {
+        JsonNode data = event.data();
+        // Partition progress, stop events and heartbeats
+        if (event.event() != null || data == null) {
+            return;
+        }
+        long nowMillis = System.currentTimeMillis();
+        String status = data.path("status").asText();
+        Long startTime = epochMillis(data.path("startTime"));
+        Long endTime = epochMillis(data.path("endTime"));
+        Long changedAt = endTime != null ? endTime : startTime;
+        if (measuring) {
+            streamEvents.incrementAndGet();
+            if (changedAt != null) {
+                streamLag.recordValue(TimeUnit.MILLISECONDS.toMicros(Math.max(0, nowMillis - changedAt)));
+            }
+        }
+        if (subscriber != matchingSubscriber) {
+            return;
+        }
+        if (measuring && endTime != null && !"STARTED".equals(status)) {
+            executionsFinished.incrementAndGet();
+        }
+        if (startTime != null) {
+            long executionId = data.path("executionId").asLong();
+            Long dueMillis = launchDueMillis.remove(executionId);
+            if (dueMillis != null) {
+                recordLaunchToRunning(dueMillis, startTime);
+            } else {
+                startedMillis.putIfAbsent(executionId, startTime);
+                dueMillis = launchDueMillis.remove(executionId);
+                if (dueMillis != null && startedMillis.remove(executionId) != null) {
+                    recordLaunchToRunning(dueMillis, startTime);
+                }
+            }
+        }
+    }
+
+    private void streamEnded(int subscriber) {
+        openSubscribers.remove(subscriber);
+        if (matchingSubscriber == subscriber) {
+            // Starts seen only by the ended stream are lost; launches matched from here on are not
+            matchingSubscriber = openSubscribers.stream().mapToInt(Integer::intValue).min().orElse(-1);
+            System.err.println(matchingSubscriber >= 0
+                    ? "Matching launches on stream subscriber " + matchingSubscriber + " from now on"
+                    : "No stream left open, later launches are reported as never started");
+        }
+    }
+
+    private void recordLaunchToRunning(long dueMillis, long startedAtMillis) {
+        launchToRunning.recordValue(TimeUnit.MILLISECONDS.toMicros(Math.max(0, startedAtMillis - dueMillis)));
+    }
+
+    private void pollSnapshots(long startNanos, long measureFromNanos, long endNanos) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.snapshotRate();
+        for (long i = 0; ; i++) {
+            long dueNanos = startNanos + i * intervalNanos;
+            if (dueNanos >= endNanos) {
+                return;
+            }
+            parkUntil(dueNanos);
+            try {
+                client.get().uri("/api/jobs/dashboard-snapshot")
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody(byte[].class)
+                        .returnResult();
+                if (dueNanos >= measureFromNanos) {
+                    dashboardSnapshot.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueNanos));
+                }
+            } catch (Throwable e) {
+                // expectStatus failures are assertion errors
+                if (dueNanos >= measureFromNanos) {
+                    snapshotsFailed.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static Long epochMillis(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            return null;
+        }
+        return LocalDateTime.parse(value.asText()).atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
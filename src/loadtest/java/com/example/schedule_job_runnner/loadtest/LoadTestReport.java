@@ -0,0 +1,150 @@
+package com.example.schedule_job_runnner.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput counts and latency percentiles of one load test run.
+ * <p>
+ * {@code results.json} holds the settings, counts and per-metric percentiles in milliseconds, with keys
+ * in a fixed order so two runs can be diffed. Each latency also gets an HdrHistogram percentile
+ * distribution ({@code <metric>.hgrm}, values in milliseconds) that can be plotted or compared with the
+ * usual HdrHistogram tools.
+ */
+class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    private final LoadTestSettings settings;
+    private final long launchesSent;
+    private final long launchesAccepted;
+    private final long launchesRejected;
+    private final long launchesFailed;
+    private final long launchesNeverStarted;
+    private final long snapshotsFailed;
+    private final long streamEvents;
+    private final long streamErrors;
+    private final long executionsFinished;
+    private final Map<String, Histogram> latencies;
+
+    LoadTestReport(LoadTestSettings settings, long launchesSent, long launchesAccepted, long launchesRejected,
+                   long launchesFailed, long launchesNeverStarted, long snapshotsFailed, long streamEvents,
+                   long streamErrors, long executionsFinished, Map<String, Histogram> latencies) {
+        this.settings = settings;
+        this.launchesSent = launchesSent;
+        this.launchesAccepted = launchesAccepted;
+        this.launchesRejected = launchesRejected;
+        this.launchesFailed = launchesFailed;
+        this.launchesNeverStarted = launchesNeverStarted;
+        this.snapshotsFailed = snapshotsFailed;
+        this.streamEvents = streamEvents;
+        this.streamErrors = streamErrors;
+        this.executionsFinished = executionsFinished;
+        this.latencies = latencies;
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("results.json").toFile(), toMap());
+        for (Map.Entry<String, Histogram> latency : latencies.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(latency.getKey() + ".hgrm")))) {
+                latency.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder()
+                .append(String.format(Locale.ROOT, "Launches: %d sent, %d accepted (%.1f/s), %d rejected, %d failed, %d never started%n",
+                        launchesSent, launchesAccepted, perSecond(launchesAccepted), launchesRejected, launchesFailed, launchesNeverStarted))
+                .append(String.format(Locale.ROOT, "Executions finished: %.1f/s, stream events: %.1f/s across %d subscribers, %d stream errors%n",
+                        perSecond(executionsFinished), perSecond(streamEvents), settings.subscribers(), streamErrors));
+        summary.append(String.format(Locale.ROOT, "%-18s %8s %9s %9s %9s %9s %9s%n",
+                "latency (ms)", "count", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<String, Histogram> latency : latencies.entrySet()) {
+            Histogram histogram = latency.getValue();
+            summary.append(String.format(Locale.ROOT, "%-18s %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    latency.getKey(), histogram.getTotalCount(),
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(90.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return summary.toString();
+    }
+
+    private Map<String, Object> toMap() {
+        Map<String, Object> settingsMap = new LinkedHashMap<>();
+        settingsMap.put("rate", settings.rate());
+        settingsMap.put("concurrency", settings.concurrency());
+        settingsMap.put("subscribers", settings.subscribers());
+        settingsMap.put("snapshotRate", settings.snapshotRate());
+        settingsMap.put("jobName", settings.jobName());
+        settingsMap.put("jobDurationMillis", settings.jobDurationMillis());
+        settingsMap.put("warmupSeconds", settings.warmup().toSeconds());
+        settingsMap.put("durationSeconds", settings.duration().toSeconds());
+        settingsMap.put("profiles", settings.profiles());
+
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("javaVersion", Runtime.version().toString());
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("launchesSent", launchesSent);
+        throughput.put("launchesAccepted", launchesAccepted);
+        throughput.put("launchesRejected", launchesRejected);
+        throughput.put("launchesFailed", launchesFailed);
+        throughput.put("launchesNeverStarted", launchesNeverStarted);
+        throughput.put("acceptedPerSecond", round(perSecond(launchesAccepted)));
+        throughput.put("finishedPerSecond", round(perSecond(executionsFinished)));
+        throughput.put("streamEventsPerSecond", round(perSecond(streamEvents)));
+        throughput.put("streamErrors", streamErrors);
+        throughput.put("snapshotsFailed", snapshotsFailed);
+
+        Map<String, Object> latencyMap = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram> latency : latencies.entrySet()) {
+            Histogram histogram = latency.getValue();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getTotalCount());
+            stats.put("mean", round(histogram.getMean() / MICROS_PER_MILLI));
+            for (double percentile : PERCENTILES) {
+                stats.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                        round(millis(histogram.getValueAtPercentile(percentile))));
+            }
+            stats.put("max", round(millis(histogram.getMaxValue())));
+            latencyMap.put(latency.getKey(), stats);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settingsMap);
+        report.put("environment", environment);
+        report.put("throughput", throughput);
+        report.put("latencyMillis", latencyMap);
+        return report;
+    }
+
+    private double perSecond(long count) {
+        return count / (double) Math.max(1, settings.duration().toSeconds());
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.schedule_job_runnner.loadtest;
+
+import com.example.schedule_job_runnner.ScheduleJobRunnnerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+/**
+ * Starts the application on a random port in this JVM, runs the load described by
+ * {@link LoadTestSettings} against it over HTTP and writes the report. Run with {@code ./gradlew loadTest}.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ScheduleJobRunnnerApplication.class)
+                .properties(
+                        "server.port=0",
+                        // One INFO line per launch and per execution would cost more than the launches
+                        "logging.level.com.example.schedule_job_runnner=WARN")
+                .profiles(settings.profiles().isBlank() ? new String[0] : settings.profiles().split(","))
+                .run(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            WebTestClient client = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + port)
+                    // Stream requests stay open for the whole run
+                    .responseTimeout(settings.warmup().plus(settings.duration()).plus(settings.drain()).plus(Duration.ofMinutes(1)))
+                    .build();
+            LoadTestReport report = new LoadGenerator(settings, client).run();
+            report.write(settings.reportDir());
+            System.out.println(report.summary());
+            System.out.println("Report written to " + settings.reportDir().toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+}
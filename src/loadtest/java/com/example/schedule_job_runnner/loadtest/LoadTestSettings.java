@@ -0,0 +1,41 @@
+package com.example.schedule_job_runnner.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test parameters, read from {@code loadTest.*} system properties (the Gradle task passes
+ * {@code -PloadTest.*} project properties through). The same settings give the same request schedule,
+ * so reports from two builds can be compared line by line.
+ *
+ * @param rate           launches per second, sent on a fixed schedule whether or not earlier ones have answered
+ * @param concurrency    launch requests in flight at most; a launch waiting for a slot counts as latency
+ * @param subscribers    connected {@code /stream} clients
+ * @param snapshotRate   {@code /dashboard-snapshot} requests per second, 0 for none
+ * @param jobName        job launched by every request
+ * @param jobDurationMillis simulated run time of each launched job
+ * @param warmup         load before measuring starts; nothing sent during it is reported
+ * @param duration       measured load
+ * @param drain          how long to wait after the load for launched executions to start
+ * @param profiles       Spring profiles the application is started with, comma separated
+ * @param reportDir      where {@code results.json} and the {@code .hgrm} percentile files are written
+ */
+public record LoadTestSettings(int rate, int concurrency, int subscribers, int snapshotRate, String jobName,
+                               long jobDurationMillis, Duration warmup, Duration duration, Duration drain,
+                               String profiles, Path reportDir) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadTest.rate", 100),
+                Integer.getInteger("loadTest.concurrency", 64),
+                Integer.getInteger("loadTest.subscribers", 10),
+                Integer.getInteger("loadTest.snapshotRate", 5),
+                System.getProperty("loadTest.jobName", "simulatedJob"),
+                Long.getLong("loadTest.jobDurationMillis", 100),
+                Duration.ofSeconds(Long.getLong("loadTest.warmupSeconds", 5)),
+                Duration.ofSeconds(Long.getLong("loadTest.durationSeconds", 30)),
+                Duration.ofSeconds(Long.getLong("loadTest.drainSeconds", 10)),
+                System.getProperty("loadTest.profiles", ""),
+                Path.of(System.getProperty("loadTest.reportDir", "build/reports/loadtest")));
+    }
+}
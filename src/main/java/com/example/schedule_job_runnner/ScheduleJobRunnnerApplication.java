@@ -2,8 +2,10 @@ package com.example.schedule_job_runnner;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ScheduleJobRunnnerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,374 @@
+package com.example.schedule_job_runnner.jobrunner.cluster;
+
+import com.example.schedule_job_runnner.jobrunner.config.ClusterProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.ClusterLaunchDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.ClusterNodeDTO;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchExecutor;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchRejectedException;
+import com.example.schedule_job_runnner.jobrunner.repository.ClusterLaunchRepository;
+import com.example.schedule_job_runnner.jobrunner.service.JobService;
+import com.example.schedule_job_runnner.jobrunner.stop.ExecutionThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs this instance as one node of a cluster sharing the job repository.
+ * <p>
+ * Launches are enqueued as PENDING rows of the shared launch queue, and every node's coordinator
+ * thread claims pending rows while its launch executor has free slots, then launches them locally.
+ * The same thread renews the node's heartbeat and the leases of everything it owns, and takes over
+ * rows whose lease has expired: the orphaned execution is marked FAILED in the job repository and the
+ * launch goes back to the queue, where the next claim restarts the failed job instance.
+ * <p>
+ * An owner that was only slow, not dead, finds out on its next heartbeat: every write it makes to the
+ * row carries the VERSION it last wrote, so once the row was taken over its updates and its final
+ * result no longer match, and the heartbeat interrupts its copy of the execution. Its job repository
+ * updates fail on their own, as the takeover already bumped the execution's version.
+ * <p>
+ * The nodes share a file H2 database through {@code AUTO_SERVER} and the queue uses H2 SQL, so a
+ * cluster runs on a single host. Leases are compared against each node's wall clock, which on one host
+ * is the same clock.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "jobrunner.cluster", name = "enabled", havingValue = "true")
+public class ClusterCoordinator implements SmartLifecycle {
+
+    // Non-identifying parameter that ties an execution back to its queue row
+    public static final String LAUNCH_ID_PARAMETER = "clusterLaunchId";
+    // Non-identifying parameter holding the row version written by the claim, telling attempts apart
+    public static final String LAUNCH_VERSION_PARAMETER = "clusterLaunchVersion";
+
+    private static final int RECOVERY_BATCH_SIZE = 50;
+    // Node rows silent for this many lease periods are removed from the registry
+    private static final int DEAD_NODE_LEASES = 10;
+
+    private final ClusterLaunchRepository repository;
+    private final ClusterProperties properties;
+    private final JobService jobService;
+    private final JobRegistry jobRegistry;
+    private final JobExplorer jobExplorer;
+    private final JobRepository jobRepository;
+    private final JobLaunchExecutor launchExecutor;
+    private final ExecutionThreads executionThreads;
+    private final String nodeId;
+
+    // Launches this node runs, by queue row id
+    private final Map<Long, OwnedLaunch> ownedLaunches = new ConcurrentHashMap<>();
+
+    private long startedAt;
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public ClusterCoordinator(ClusterLaunchRepository repository, ClusterProperties properties, JobService jobService,
+                              JobRegistry jobRegistry, JobExplorer jobExplorer, JobRepository jobRepository,
+                              @Qualifier("asyncTaskExecutor") JobLaunchExecutor launchExecutor,
+                              ExecutionThreads executionThreads) {
+        this.repository = repository;
+        this.properties = properties;
+        this.jobService = jobService;
+        this.jobRegistry = jobRegistry;
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.launchExecutor = launchExecutor;
+        this.executionThreads = executionThreads;
+        this.nodeId = properties.getNodeId() == null || properties.getNodeId().isBlank()
+                ? defaultNodeId()
+                : properties.getNodeId();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Adds a launch to the shared queue; whichever node has a free slot first runs it.
+     */
+    public ClusterLaunchDTO enqueue(String jobName, Map<String, Object> jobParametersMap) throws NoSuchJobException {
+        jobRegistry.getJob(jobName); // fail fast on unknown jobs instead of on the claiming node
+        JobParameters jobParameters = jobService.buildJobParameters(jobParametersMap);
+        int priority = jobParametersMap != null && jobParametersMap.get(JobLaunchExecutor.PRIORITY_PARAMETER) instanceof Number number
+                ? number.intValue()
+                : JobLaunchExecutor.DEFAULT_PRIORITY;
+        long id = repository.enqueue(jobName, jobParameters, priority);
+        log.info("Enqueued cluster launch {} of job '{}' on node {}", id, jobName, nodeId);
+        return repository.findLaunch(id);
+    }
+
+    public ClusterLaunchDTO getLaunch(long id) {
+        return repository.findLaunch(id);
+    }
+
+    public List<ClusterLaunchDTO> getLaunches(String status, int limit) {
+        return repository.findLaunches(status, limit);
+    }
+
+    public List<ClusterNodeDTO> getNodes() {
+        return repository.findNodes(nodeId, System.currentTimeMillis() - properties.getLeaseMillis());
+    }
+
+    /**
+     * Called by the job listener when an execution ends; closes the queue row it was launched from,
+     * unless the row was taken over in the meantime.
+     */
+    public void executionFinished(JobExecution jobExecution) {
+        Long launchId = jobExecution.getJobParameters().getLong(LAUNCH_ID_PARAMETER);
+        if (launchId == null) {
+            return; // launched directly on this node, not through the queue
+        }
+        Long claimVersion = jobExecution.getJobParameters().getLong(LAUNCH_VERSION_PARAMETER);
+        OwnedLaunch owned = ownedLaunches.get(launchId);
+        if (owned == null || claimVersion == null || owned.claimVersion != claimVersion) {
+            log.warn("Cluster launch {} (execution {}) finished on node {} after its lease was taken over",
+                    launchId, jobExecution.getId(), nodeId);
+            return;
+        }
+        try {
+            synchronized (owned) {
+                ownedLaunches.remove(launchId, owned);
+                if (!repository.finish(launchId, nodeId, owned.version, jobExecution.getId(), jobExecution.getStatus().name())) {
+                    log.warn("Cluster launch {} (execution {}) finished on node {} after its lease was taken over",
+                            launchId, jobExecution.getId(), nodeId);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not record the end of cluster launch {} (execution {})", launchId, jobExecution.getId(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        repository.createTablesIfMissing();
+        startedAt = System.currentTimeMillis();
+        repository.heartbeat(nodeId, startedAt, startedAt);
+        running = true;
+        worker = Thread.ofPlatform().name("cluster-coordinator").daemon(true).start(this::workLoop);
+        log.info("Cluster node {} started (lease={}ms, heartbeat={}ms, poll={}ms)", nodeId,
+                properties.getLeaseMillis(), properties.getHeartbeatMillis(), properties.getPollMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread t = worker;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            // Running executions keep their leases and are recovered by the other nodes once those expire
+            int released = repository.releaseClaimed(nodeId);
+            repository.removeNode(nodeId);
+            log.info("Cluster node {} stopped, {} claimed launches released", nodeId, released);
+        } catch (RuntimeException e) {
+            log.warn("Cluster node {} could not deregister: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void workLoop() {
+        long lastHeartbeat = 0;
+        while (running) {
+            long now = System.currentTimeMillis();
+            try {
+                if (now - lastHeartbeat >= properties.getHeartbeatMillis()) {
+                    heartbeat(now);
+                    recoverExpiredLeases(now);
+                    lastHeartbeat = now;
+                }
+                claimPending();
+            } catch (Throwable t) {
+                log.error("Error in cluster coordinator of node {}", nodeId, t);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(properties.getPollMillis()));
+        }
+    }
+
+    private void heartbeat(long now) {
+        repository.heartbeat(nodeId, startedAt, now);
+        fenceTakenOverLaunches();
+        int renewed = repository.renewLeases(nodeId, now + properties.getLeaseMillis());
+        log.debug("Node {} renewed {} leases", nodeId, renewed);
+    }
+
+    private void claimPending() {
+        int free = launchExecutor.getProperties().getMaxConcurrent() - launchExecutor.getRunningCount() - launchExecutor.getQueuedCount();
+        int wanted = Math.min(properties.getClaimBatchSize(), free);
+        if (wanted <= 0) {
+            return;
+        }
+        for (ClusterLaunchRepository.QueuedLaunch launch : repository.findPending(wanted)) {
+            if (!running) {
+                return;
+            }
+            if (ownedLaunches.containsKey(launch.id())) {
+                continue; // an earlier attempt still runs here until the next heartbeat fences it
+            }
+            if (repository.claim(launch, nodeId, System.currentTimeMillis() + properties.getLeaseMillis())) {
+                launch(launch);
+            }
+        }
+    }
+
+    private void launch(ClusterLaunchRepository.QueuedLaunch launch) {
+        OwnedLaunch owned = new OwnedLaunch(launch.version() + 1);
+        ownedLaunches.put(launch.id(), owned);
+        JobParameters jobParameters = new JobParametersBuilder(launch.parameters())
+                .addLong(LAUNCH_ID_PARAMETER, launch.id(), false)
+                .addLong(LAUNCH_VERSION_PARAMETER, (long) owned.claimVersion, false)
+                .toJobParameters();
+        try {
+            BatchJobExecutionInfoDTO execution = jobService.launchJob(launch.jobName(), jobParameters);
+            synchronized (owned) {
+                owned.executionId = execution.getExecutionId();
+                // Skipped if the execution already finished and closed the row
+                if (ownedLaunches.get(launch.id()) == owned
+                        && repository.markRunning(launch.id(), nodeId, owned.version, execution.getExecutionId())) {
+                    owned.version++;
+                }
+            }
+            log.info("Node {} launched cluster launch {} of job '{}' as execution {}", nodeId, launch.id(),
+                    launch.jobName(), execution.getExecutionId());
+        } catch (JobLaunchRejectedException e) {
+            // Filled up by direct launches since the claim; leave it to a node with room
+            ownedLaunches.remove(launch.id(), owned);
+            repository.release(launch.id(), nodeId, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Node {} could not launch cluster launch {} of job '{}': {}", nodeId, launch.id(), launch.jobName(), e.getMessage());
+            ownedLaunches.remove(launch.id(), owned);
+            repository.fail(launch.id(), nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops this node's copy of every launch whose row no longer carries the version the node last wrote,
+     * i.e. that another node took over while this one was too slow to renew the lease.
+     */
+    private void fenceTakenOverLaunches() {
+        if (ownedLaunches.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> versions = repository.findOwnedVersions(nodeId);
+        ownedLaunches.forEach((launchId, owned) -> {
+            synchronized (owned) {
+                Integer version = versions.get(launchId);
+                if (ownedLaunches.get(launchId) != owned || (version != null && version == owned.version)) {
+                    return; // finished meanwhile, or still ours
+                }
+                ownedLaunches.remove(launchId, owned);
+                int interrupted = owned.executionId != null ? executionThreads.interrupt(owned.executionId) : 0;
+                log.warn("Cluster launch {} was taken over from node {}, stopping execution {} here ({} threads interrupted)",
+                        launchId, nodeId, owned.executionId, interrupted);
+            }
+        });
+    }
+
+    private void recoverExpiredLeases(long now) {
+        for (ClusterLaunchRepository.QueuedLaunch launch : repository.findExpired(now, RECOVERY_BATCH_SIZE)) {
+            if (!repository.takeOver(launch, nodeId, now + properties.getLeaseMillis(), now)) {
+                continue; // renewed by its owner or recovered by another node
+            }
+            String message = "Lease of node " + launch.ownerNode() + " expired";
+            log.warn("Node {} recovering cluster launch {} of job '{}': {}", nodeId, launch.id(), launch.jobName(), message);
+            try {
+                failOrphanedExecution(launch, message);
+            } catch (RuntimeException e) {
+                log.warn("Could not mark the execution of cluster launch {} as failed: {}", launch.id(), e.getMessage());
+            }
+            repository.requeue(launch.id(), nodeId, properties.getMaxAttempts(), message);
+        }
+        int removed = repository.removeNodesSilentSince(now - DEAD_NODE_LEASES * properties.getLeaseMillis());
+        if (removed > 0) {
+            log.info("Removed {} dead nodes from the cluster registry", removed);
+        }
+    }
+
+    private void failOrphanedExecution(ClusterLaunchRepository.QueuedLaunch launch, String message) {
+        Long executionId = launch.jobExecutionId();
+        if (executionId == null) {
+            // The owner may have died between creating the execution and recording it on the row
+            JobExecution last = jobRepository.getLastJobExecution(launch.jobName(), launch.parameters());
+            if (last == null || !Long.valueOf(launch.id()).equals(last.getJobParameters().getLong(LAUNCH_ID_PARAMETER))) {
+                return;
+            }
+            executionId = last.getId();
+        }
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null || !jobExecution.isRunning()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (stepExecution.getStatus().isRunning()) {
+                stepExecution.setStatus(BatchStatus.FAILED);
+                stepExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(message));
+                stepExecution.setEndTime(now);
+                jobRepository.update(stepExecution);
+            }
+        }
+        jobExecution.setStatus(BatchStatus.FAILED);
+        jobExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(message));
+        jobExecution.setEndTime(now);
+        jobRepository.update(jobExecution);
+        jobService.processJobExecutionUpdate(jobExecution);
+    }
+
+    // A launch this node runs and the row version it last wrote; guarded by itself
+    private static final class OwnedLaunch {
+        private final int claimVersion;
+        private int version;
+        private Long executionId;
+
+        private OwnedLaunch(int claimVersion) {
+            this.claimVersion = claimVersion;
+            this.version = claimVersion;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
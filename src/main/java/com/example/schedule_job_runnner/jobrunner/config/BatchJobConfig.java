@@ -1,150 +1,244 @@
 package com.example.schedule_job_runnner.jobrunner.config;
 
+import com.example.schedule_job_runnner.jobrunner.dto.PartitionProgressDTO;
+import com.example.schedule_job_runnner.jobrunner.launch.AdmissionControlledJobLauncher;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchExecutor;
 import com.example.schedule_job_runnner.jobrunner.listener.CustomJobExecutionListener;
+import com.example.schedule_job_runnner.jobrunner.pipeline.BatchingFileWriter;
+import com.example.schedule_job_runnner.jobrunner.pipeline.NioLineReader;
+import com.example.schedule_job_runnner.jobrunner.pipeline.ParallelItemProcessor;
+import com.example.schedule_job_runnner.jobrunner.pipeline.PipelineFiles;
+import com.example.schedule_job_runnner.jobrunner.pipeline.PipelineMetrics;
+import com.example.schedule_job_runnner.jobrunner.pipeline.PipelinedItemWriter;
+import com.example.schedule_job_runnner.jobrunner.pipeline.RecordTransformer;
+import com.example.schedule_job_runnner.jobrunner.simulation.SimulatedPartitioner;
+import com.example.schedule_job_runnner.jobrunner.simulation.SimulatedTasklet;
+import com.example.schedule_job_runnner.jobrunner.stop.ExecutionThreads;
+import com.example.schedule_job_runnner.jobrunner.stream.ExecutionUpdateHub;
+import com.example.schedule_job_runnner.jobrunner.stream.StreamEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
-import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Future;
 
 @Slf4j
 @Configuration
 public class BatchJobConfig {
 
+    // Simulated tasklets never touch the database, so their step transaction must not hold a pooled
+    // connection while they wait; repository updates still run in their own JDBC transactions.
+    // Deliberately not a bean, it would replace the auto-configured transaction manager.
+    private final PlatformTransactionManager simulationTransactionManager = new ResourcelessTransactionManager();
+
     @Bean(name = "asyncTaskExecutor")
-    public TaskExecutor asyncTaskExecutor() {
-        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("spring_batch");
-        // executor.setConcurrencyLimit(10); // Optional: configure as needed
-        return executor;
+    public JobLaunchExecutor asyncTaskExecutor(JobLaunchProperties jobLaunchProperties) {
+        return new JobLaunchExecutor(jobLaunchProperties);
     }
 
     @Bean
     @Primary
-    public JobLauncher asyncJobLauncher(JobRepository jobRepository, @Qualifier("asyncTaskExecutor") TaskExecutor taskExecutor) throws Exception {
-        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+    public JobLauncher asyncJobLauncher(JobRepository jobRepository, @Qualifier("asyncTaskExecutor") JobLaunchExecutor taskExecutor) throws Exception {
+        TaskExecutorJobLauncher jobLauncher = new AdmissionControlledJobLauncher(taskExecutor);
         jobLauncher.setJobRepository(jobRepository); // JobRepository is needed by JobLauncher
-        jobLauncher.setTaskExecutor(taskExecutor);
         jobLauncher.afterPropertiesSet(); // Important to call this
         return jobLauncher;
     }
 
     @Bean
-    public Tasklet simulatedTasklet() {
-        return (contribution, chunkContext) -> {
-            String jobName = chunkContext.getStepContext().getJobName();
-            long executionId = chunkContext.getStepContext().getStepExecution().getJobExecutionId();
-            String customJobName = chunkContext.getStepContext().getJobParameters().get("customJobName").toString();
-            long durationInSeconds = (Long) chunkContext.getStepContext().getJobParameters().getOrDefault("durationInSeconds", 5L);
-
-            log.info("Tasklet for Batch Job: '{}', Execution ID: {}, Custom Name: '{}' STARTING. Will run for {} seconds.", 
-                jobName, executionId, customJobName, durationInSeconds);
-            
-            try {
-                Thread.sleep(durationInSeconds * 1000);
-            } catch (InterruptedException e) {
-                log.error("Tasklet for job '{}' interrupted.", jobName, e);
-                Thread.currentThread().interrupt();
-                contribution.getStepExecution().getJobExecution().setStatus(org.springframework.batch.core.BatchStatus.STOPPED);
-                contribution.setExitStatus(org.springframework.batch.core.ExitStatus.STOPPED.addExitDescription(e.getMessage()));
-                return RepeatStatus.FINISHED;
-            }
-            
-            log.info("Tasklet for Batch Job: '{}', Execution ID: {}, Custom Name: '{}' COMPLETED.", jobName, executionId, customJobName);
-            return RepeatStatus.FINISHED;
-        };
-    }
-
-    @Bean
-    public Tasklet simulatedFailingTasklet() {
-        return (contribution, chunkContext) -> {
-            String jobName = chunkContext.getStepContext().getJobName();
-            long executionId = chunkContext.getStepContext().getStepExecution().getJobExecutionId();
-            String customJobName = chunkContext.getStepContext().getJobParameters().get("customJobName").toString();
-            long durationInSeconds = (Long) chunkContext.getStepContext().getJobParameters().getOrDefault("durationInSeconds", 5L);
-
-            log.info("Tasklet for FAILING Batch Job: '{}', Execution ID: {}, Custom Name: '{}' STARTING. Will run for {} seconds then fail.", 
-                jobName, executionId, customJobName, durationInSeconds);
-            
-            try {
-                Thread.sleep(durationInSeconds * 1000);
-            } catch (InterruptedException e) {
-                log.warn("Tasklet for failing job '{}' interrupted during sleep.", jobName, e);
-                Thread.currentThread().interrupt();
-                contribution.getStepExecution().getJobExecution().setStatus(org.springframework.batch.core.BatchStatus.STOPPED);
-                contribution.setExitStatus(org.springframework.batch.core.ExitStatus.STOPPED.addExitDescription("Interrupted during sleep"));
-                return RepeatStatus.FINISHED; // Technically finished due to interruption, but marking stopped
-            }
-            
-            log.error("Tasklet for FAILING Batch Job: '{}', Execution ID: {}, Custom Name: '{}' SIMULATING FAILURE.", jobName, executionId, customJobName);
-            throw new RuntimeException("Simulated failure for job: " + customJobName);
-        };
-    }
-
-    @Bean
-    public Tasklet simulatedStoppingTasklet() {
-        return (contribution, chunkContext) -> {
-            String jobName = chunkContext.getStepContext().getJobName();
-            long executionId = chunkContext.getStepContext().getStepExecution().getJobExecutionId();
-            String customJobName = chunkContext.getStepContext().getJobParameters().get("customJobName").toString();
-            long durationInSeconds = (Long) chunkContext.getStepContext().getJobParameters().getOrDefault("durationInSeconds", 5L);
-
-            log.info("Tasklet for STOPPING Batch Job: '{}', Execution ID: {}, Custom Name: '{}' STARTING. Will run for {} seconds then stop.", 
-                jobName, executionId, customJobName, durationInSeconds);
-            
-            try {
-                Thread.sleep(durationInSeconds * 1000);
-            } catch (InterruptedException e) {
-                log.warn("Tasklet for stopping job '{}' interrupted during sleep.", jobName, e);
-                Thread.currentThread().interrupt();
-                // Already stopping, just finish
-                contribution.getStepExecution().getJobExecution().setStatus(org.springframework.batch.core.BatchStatus.STOPPED);
-                contribution.setExitStatus(org.springframework.batch.core.ExitStatus.STOPPED.addExitDescription("Interrupted during sleep while trying to stop"));
-                return RepeatStatus.FINISHED;
-            }
-            
-            log.warn("Tasklet for STOPPING Batch Job: '{}', Execution ID: {}, Custom Name: '{}' SIMULATING STOP.", jobName, executionId, customJobName);
-            contribution.getStepExecution().getJobExecution().setStatus(org.springframework.batch.core.BatchStatus.STOPPED);
-            contribution.setExitStatus(org.springframework.batch.core.ExitStatus.STOPPED.addExitDescription("Simulated stop for job: " + customJobName));
-            return RepeatStatus.FINISHED; // Tasklet finished, but job status is set to STOPPED
-        };
+    public Tasklet simulatedTasklet(ExecutionThreads executionThreads) {
+        return new SimulatedTasklet(SimulatedTasklet.Outcome.COMPLETE, executionThreads);
+    }
+
+    @Bean
+    public Tasklet simulatedFailingTasklet(ExecutionThreads executionThreads) {
+        return new SimulatedTasklet(SimulatedTasklet.Outcome.FAIL, executionThreads);
+    }
+
+    @Bean
+    public Tasklet simulatedStoppingTasklet(ExecutionThreads executionThreads) {
+        return new SimulatedTasklet(SimulatedTasklet.Outcome.STOP, executionThreads);
+    }
+
+    /**
+     * Runs the worker steps of partitioned jobs. Partitions are CPU work spread over the cores, so this is
+     * a fixed pool of platform threads, separate from the launch executor.
+     */
+    @Bean(name = "partitionTaskExecutor")
+    public ThreadPoolTaskExecutor partitionTaskExecutor(PartitionProperties partitionProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(partitionProperties.effectivePoolSize());
+        executor.setMaxPoolSize(partitionProperties.effectivePoolSize());
+        executor.setThreadNamePrefix("partition-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    @Bean
+    @StepScope
+    public Partitioner simulatedPartitioner(PartitionProperties partitionProperties,
+                                            @Value("#{jobParameters['partitionCount']}") Long partitionCount) {
+        int count = partitionCount != null ? partitionCount.intValue() : partitionProperties.getDefaultPartitionCount();
+        return new SimulatedPartitioner(Math.min(count, partitionProperties.getMaxPartitionCount()));
+    }
+
+    @Bean
+    public Tasklet simulatedPartitionTasklet(ExecutionUpdateHub executionUpdateHub, ExecutionThreads executionThreads) {
+        // Each partition reports its progress on the stream as a partition-progress event
+        return new SimulatedTasklet(SimulatedTasklet.Outcome.COMPLETE, executionThreads, (stepExecution, percentComplete, status) -> {
+            ExecutionContext context = stepExecution.getExecutionContext();
+            executionUpdateHub.publish(StreamEvent.partitionProgress(PartitionProgressDTO.builder()
+                    .executionId(stepExecution.getJobExecutionId())
+                    .jobName(stepExecution.getJobExecution().getJobInstance().getJobName())
+                    .stepExecutionId(stepExecution.getId())
+                    .stepName(stepExecution.getStepName())
+                    .partition(context.getInt(SimulatedPartitioner.PARTITION_INDEX, 0))
+                    .partitionCount(context.getInt(SimulatedPartitioner.PARTITION_COUNT, 1))
+                    .percentComplete(percentComplete)
+                    .status(status.toString())
+                    .thread(Thread.currentThread().getName())
+                    .build()));
+        });
     }
 
     @Bean
     public Step simulatedStep(JobRepository jobRepository, 
-                              PlatformTransactionManager transactionManager, 
                               Tasklet simulatedTasklet) {
         return new StepBuilder("simulatedStep", jobRepository)
-                .tasklet(simulatedTasklet, transactionManager)
+                .tasklet(simulatedTasklet, simulationTransactionManager)
                 .build();
     }
 
     @Bean
     public Step simulatedFailingStep(JobRepository jobRepository, 
-                                     PlatformTransactionManager transactionManager, 
                                      @Qualifier("simulatedFailingTasklet") Tasklet simulatedFailingTasklet) {
         return new StepBuilder("simulatedFailingStep", jobRepository)
-                .tasklet(simulatedFailingTasklet, transactionManager)
+                .tasklet(simulatedFailingTasklet, simulationTransactionManager)
                 .build();
     }
 
     @Bean
     public Step simulatedStoppingStep(JobRepository jobRepository, 
-                                      PlatformTransactionManager transactionManager, 
                                       @Qualifier("simulatedStoppingTasklet") Tasklet simulatedStoppingTasklet) {
         return new StepBuilder("simulatedStoppingStep", jobRepository)
-                .tasklet(simulatedStoppingTasklet, transactionManager)
+                .tasklet(simulatedStoppingTasklet, simulationTransactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step simulatedWorkerStep(JobRepository jobRepository,
+                                    @Qualifier("simulatedPartitionTasklet") Tasklet simulatedPartitionTasklet) {
+        return new StepBuilder("simulatedWorkerStep", jobRepository)
+                .tasklet(simulatedPartitionTasklet, simulationTransactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step simulatedPartitionedStep(JobRepository jobRepository,
+                                         @Qualifier("simulatedPartitioner") Partitioner simulatedPartitioner,
+                                         @Qualifier("simulatedWorkerStep") Step simulatedWorkerStep,
+                                         @Qualifier("partitionTaskExecutor") TaskExecutor partitionTaskExecutor,
+                                         PartitionProperties partitionProperties) {
+        // The grid size is only a hint, the partitioner takes the count from the partitionCount job parameter
+        return new StepBuilder("simulatedPartitionedStep", jobRepository)
+                .partitioner("simulatedWorkerStep", simulatedPartitioner)
+                .step(simulatedWorkerStep)
+                .gridSize(partitionProperties.getDefaultPartitionCount())
+                .taskExecutor(partitionTaskExecutor)
+                .build();
+    }
+
+    /**
+     * Runs the processor stage of the file processing pipeline.
+     */
+    @Bean(name = "pipelineTaskExecutor")
+    public ThreadPoolTaskExecutor pipelineTaskExecutor(PipelineProperties pipelineProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pipelineProperties.effectiveProcessorThreads());
+        executor.setMaxPoolSize(pipelineProperties.effectiveProcessorThreads());
+        executor.setThreadNamePrefix("pipeline-process-");
+        return executor;
+    }
+
+    @Bean
+    @StepScope
+    public NioLineReader fileLineReader(PipelineProperties pipelineProperties, PipelineMetrics pipelineMetrics,
+                                       PipelineFiles pipelineFiles,
+                                       @Value("#{jobParameters['inputFile']}") String inputFile,
+                                       @Value("#{jobParameters['chunkSize']}") Long chunkSize,
+                                       @Value("#{jobParameters['pipelineDepth']}") Long pipelineDepth) {
+        // The reader hands out blocks of one chunk, pipelineDepth of them can wait for the step
+        return new NioLineReader(pipelineFiles.input(inputFile),
+                chunkSize != null ? chunkSize.intValue() : pipelineProperties.getDefaultChunkSize(),
+                pipelineDepth != null ? pipelineDepth.intValue() : pipelineProperties.getDefaultPipelineDepth(),
+                pipelineProperties.getReadBufferBytes(), pipelineMetrics.getRecordsRead());
+    }
+
+    @Bean
+    @StepScope
+    public BatchingFileWriter fileRecordWriter(PipelineMetrics pipelineMetrics, PipelineFiles pipelineFiles,
+                                               @Value("#{jobParameters['inputFile']}") String inputFile,
+                                               @Value("#{jobParameters['outputFile']}") String outputFile,
+                                               @Value("#{jobParameters['overwriteOutput']}") String overwriteOutput) {
+        return new BatchingFileWriter(pipelineFiles.output(inputFile, outputFile), PipelineFiles.overwrite(overwriteOutput),
+                pipelineMetrics.getRecordsWritten());
+    }
+
+    // Step scoped: it holds the writer thread and queue of one execution
+    @Bean
+    @StepScope
+    public PipelinedItemWriter<String> fileRecordPipelineWriter(PipelineProperties pipelineProperties, PipelineMetrics pipelineMetrics,
+                                                                @Qualifier("fileRecordWriter") BatchingFileWriter fileRecordWriter,
+                                                                @Value("#{jobParameters['pipelineDepth']}") Long pipelineDepth) {
+        return new PipelinedItemWriter<>(fileRecordWriter,
+                pipelineDepth != null ? pipelineDepth.intValue() : pipelineProperties.getDefaultPipelineDepth(),
+                pipelineMetrics);
+    }
+
+    @Bean
+    @StepScope
+    public CompletionPolicy fileChunkCompletionPolicy(PipelineProperties pipelineProperties,
+                                                      @Value("#{jobParameters['chunkSize']}") Long chunkSize) {
+        return new SimpleCompletionPolicy(chunkSize != null ? chunkSize.intValue() : pipelineProperties.getDefaultChunkSize());
+    }
+
+    /**
+     * Chunk step whose stages overlap: the reader thread runs up to pipelineDepth chunks ahead, records are
+     * transformed on the pipeline pool while the rest of the chunk is read, and the writer thread writes up
+     * to pipelineDepth queued chunks, each with one channel write, while the step works on the next.
+     */
+    @Bean
+    public Step fileProcessingStep(JobRepository jobRepository,
+                                   @Qualifier("fileLineReader") NioLineReader fileLineReader,
+                                   @Qualifier("fileRecordPipelineWriter") PipelinedItemWriter<String> fileRecordPipelineWriter,
+                                   @Qualifier("fileChunkCompletionPolicy") CompletionPolicy fileChunkCompletionPolicy,
+                                   @Qualifier("pipelineTaskExecutor") TaskExecutor pipelineTaskExecutor) {
+        return new StepBuilder("fileProcessingStep", jobRepository)
+                .<String, Future<String>>chunk(fileChunkCompletionPolicy, simulationTransactionManager)
+                .reader(fileLineReader)
+                .processor(new ParallelItemProcessor<>(new RecordTransformer(), pipelineTaskExecutor))
+                // Also registered as a step listener, being one, so it drains before the step's final state is written
+                .writer(fileRecordPipelineWriter)
                 .build();
     }
 
@@ -197,4 +291,27 @@ public class BatchJobConfig {
                 .start(simulatedStoppingStep)
                 .build();
     }
-} 
\ No newline at end of file
+
+    @Bean
+    public Job simulatedPartitionedJob(JobRepository jobRepository,
+                                       @Qualifier("simulatedPartitionedStep") Step simulatedPartitionedStep,
+                                       CustomJobExecutionListener customJobExecutionListener) {
+        return new JobBuilder("simulatedPartitionedJob", jobRepository)
+                .listener(customJobExecutionListener)
+                .start(simulatedPartitionedStep)
+                .build();
+    }
+
+    @Bean
+    public Job fileProcessingJob(JobRepository jobRepository,
+                                 @Qualifier("fileProcessingStep") Step fileProcessingStep,
+                                 CustomJobExecutionListener customJobExecutionListener,
+                                 PipelineFiles pipelineFiles) {
+        return new JobBuilder("fileProcessingJob", jobRepository)
+                .listener(customJobExecutionListener)
+                // Paths must stay inside jobrunner.pipeline.base-directory
+                .validator(pipelineFiles)
+                .start(fileProcessingStep)
+                .build();
+    }
+}
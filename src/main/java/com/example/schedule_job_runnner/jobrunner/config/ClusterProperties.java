@@ -0,0 +1,26 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for running several instances against one shared job repository (prefix {@code jobrunner.cluster}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = false;
+    // Unique per instance; blank picks one from the host name and process id
+    private String nodeId = "";
+    // A claimed launch belongs to its node for this long after the node's last heartbeat
+    private long leaseMillis = 15000;
+    // How often a node renews its heartbeat and leases, and looks for expired leases of other nodes
+    private long heartbeatMillis = 5000;
+    // How often an idle node looks for pending launches
+    private long pollMillis = 500;
+    // Pending launches claimed per poll, never more than the node has free launch slots
+    private int claimBatchSize = 10;
+    // Launches recovered from dead nodes this many times are given up on and marked FAILED
+    private int maxAttempts = 3;
+}
@@ -0,0 +1,50 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup settings of the fast-start profile ({@code jobrunner.fast-start.lazy-job-registration=true}).
+ * <p>
+ * Swaps the auto-configured job registry for a {@link LazyJobRegistry}, so that with lazy bean
+ * initialization no job, step or tasklet is created before it is first launched. The swap is a bean
+ * definition change made before any bean exists, so Spring AOT processing captures it when it runs with
+ * the same profile, and the generated initializer already contains the lazy registry.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "jobrunner.fast-start", name = "lazy-job-registration", havingValue = "true")
+public class FastStartConfig {
+
+    // Name of the registry bean defined by the batch auto-configuration
+    static final String JOB_REGISTRY_BEAN_NAME = "jobRegistry";
+
+    @Bean
+    static BeanDefinitionRegistryPostProcessor lazyJobRegistryPostProcessor() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                if (!registry.containsBeanDefinition(JOB_REGISTRY_BEAN_NAME)) {
+                    log.warn("No '{}' bean to replace, jobs are registered eagerly", JOB_REGISTRY_BEAN_NAME);
+                    return;
+                }
+                // Already replaced when running from AOT-generated bean definitions
+                if (LazyJobRegistry.class.getName().equals(registry.getBeanDefinition(JOB_REGISTRY_BEAN_NAME).getBeanClassName())) {
+                    return;
+                }
+                registry.removeBeanDefinition(JOB_REGISTRY_BEAN_NAME);
+                registry.registerBeanDefinition(JOB_REGISTRY_BEAN_NAME, new RootBeanDefinition(LazyJobRegistry.class));
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+}
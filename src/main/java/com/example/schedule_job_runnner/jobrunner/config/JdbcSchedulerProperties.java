@@ -0,0 +1,18 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the scheduler that runs blocking repository calls off the WebFlux event loop
+ * (prefix {@code jobrunner.jdbc-scheduler}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.jdbc-scheduler")
+public class JdbcSchedulerProperties {
+
+    // Matches the default Hikari pool size; more threads would only wait for a connection
+    private int threadCap = 10;
+    // Calls allowed to wait for a thread before new ones fail fast
+    private int queuedTaskCap = 1000;
+}
@@ -0,0 +1,47 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the executor behind {@code asyncJobLauncher} (prefix {@code jobrunner.launch}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.launch")
+public class JobLaunchProperties {
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private Mode mode = Mode.VIRTUAL;
+    // Executions allowed to run at the same time across all jobs
+    private int maxConcurrent = 200;
+    // Default cap per job name, 0 or less means no per-job cap
+    private int perJobMaxConcurrent = 0;
+    // Per job name overrides of perJobMaxConcurrent, e.g. jobrunner.launch.job-limits.simulatedJob4=2
+    private Map<String, Integer> jobLimits = new HashMap<>();
+    // Launches allowed to wait for a free slot before new ones are rejected
+    private int queueCapacity = 1000;
+    private String threadNamePrefix = "spring_batch-";
+    // Bulk launches: items persisted per repository transaction, and items allowed per request
+    private int bulkChunkSize = 200;
+    private int bulkMaxItems = 10000;
+    // Fair share of free slots per job name when several jobs are queued, e.g. job-weights.simulatedJob=3 (default 1)
+    private Map<String, Integer> jobWeights = new HashMap<>();
+    // Maximum launches started per second, per job name and per tenant (the "tenant" job parameter); absent means unlimited
+    private Map<String, Double> rateLimits = new HashMap<>();
+    private Map<String, Double> tenantRateLimits = new HashMap<>();
+
+    public int limitFor(String jobName) {
+        return jobLimits.getOrDefault(jobName, perJobMaxConcurrent);
+    }
+
+    public int weightFor(String jobName) {
+        return Math.max(1, jobWeights.getOrDefault(jobName, 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.configuration.support.MapJobRegistry;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job registry that creates each job the first time it is asked for, instead of registering every
+ * {@link Job} bean once the context has started.
+ * <p>
+ * Job names come from the bean definitions of type {@link Job}, so listing them creates nothing; the job
+ * bean, and with lazy initialization its steps and tasklets, is created by the first {@link #getJob} for
+ * its name, which is normally its first launch. Job beans must be named after their job, as they are in
+ * {@link BatchJobConfig}. Jobs registered explicitly are looked up as in {@link MapJobRegistry}.
+ */
+@Slf4j
+public class LazyJobRegistry extends MapJobRegistry implements BeanFactoryAware {
+
+    private final Map<String, Job> createdJobs = new ConcurrentHashMap<>();
+    private ListableBeanFactory beanFactory;
+    private volatile Set<String> jobBeanNames;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = (ListableBeanFactory) beanFactory;
+    }
+
+    /**
+     * Does not register the job beans: they are created on first use.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+    }
+
+    @Override
+    public Job getJob(String name) throws NoSuchJobException {
+        Job job = createdJobs.get(name);
+        if (job != null) {
+            return job;
+        }
+        if (name != null && jobBeanNames().contains(name)) {
+            return createdJobs.computeIfAbsent(name, this::createJob);
+        }
+        return super.getJob(name);
+    }
+
+    @Override
+    public Set<String> getJobNames() {
+        Set<String> names = new TreeSet<>(jobBeanNames());
+        names.addAll(super.getJobNames());
+        return Collections.unmodifiableSet(names);
+    }
+
+    private Job createJob(String name) {
+        long startNanos = System.nanoTime();
+        Job job = beanFactory.getBean(name, Job.class);
+        if (!name.equals(job.getName())) {
+            log.warn("Job bean '{}' is named '{}', it is only found under its bean name", name, job.getName());
+        }
+        log.info("Created job '{}' on first use in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return job;
+    }
+
+    // Bean definitions are fixed once the context has been refreshed
+    private Set<String> jobBeanNames() {
+        Set<String> names = jobBeanNames;
+        if (names == null) {
+            // Not allowed to initialise factory beans eagerly, so this never creates a bean
+            names = Set.of(beanFactory.getBeanNamesForType(Job.class, true, false));
+            jobBeanNames = names;
+        }
+        return names;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for partitioned simulated jobs (prefix {@code jobrunner.partition}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.partition")
+public class PartitionProperties {
+
+    // Threads running partitions across all executions, 0 or less means one per available processor
+    private int poolSize = 0;
+    // Partitions per execution when the launch does not set partitionCount
+    private int defaultPartitionCount = 4;
+    // Upper bound for the partitionCount launch parameter
+    private int maxPartitionCount = 256;
+
+    public int effectivePoolSize() {
+        return poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the file processing pipeline (prefix {@code jobrunner.pipeline}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.pipeline")
+public class PipelineProperties {
+
+    // Directory inputFile and outputFile are resolved in; launches naming files outside it are rejected
+    private String baseDirectory = "pipeline-data";
+    // Threads running the processor stage across all executions, 0 or less means one per available processor
+    private int processorThreads = 0;
+    // Defaults for the chunkSize and pipelineDepth job parameters
+    private int defaultChunkSize = 1000;
+    private int defaultPipelineDepth = 4;
+    // Size of the reader's direct buffer
+    private int readBufferBytes = 64 * 1024;
+
+    public int effectiveProcessorThreads() {
+        return processorThreads > 0 ? processorThreads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the retention of finished executions in the job repository (prefix {@code jobrunner.retention}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.retention")
+public class RetentionProperties {
+
+    public enum Action {
+        // Append the execution to the archive, then delete it from the repository
+        ARCHIVE,
+        // Delete the execution from the repository only
+        DELETE
+    }
+
+    /**
+     * Per job overrides; unset fields fall back to the defaults above them.
+     */
+    @Data
+    public static class Policy {
+        private Duration maxAge;
+        private Integer keepLast;
+        private Action action;
+    }
+
+    private boolean enabled = true;
+    private long intervalMillis = 300_000;
+    // Finished executions created longer ago than this are removed, 0 keeps them regardless of age
+    private Duration maxAge = Duration.ofDays(7);
+    // The newest executions of each job are always kept, whatever their age
+    private int keepLast = 100;
+    private Action action = Action.ARCHIVE;
+    // Executions removed per repository transaction, and the pause between two of them
+    private int batchSize = 100;
+    private long batchPauseMillis = 50;
+    // Where archive segments are written; blank uses a fresh temporary directory, which suits the in-memory repository
+    private String archiveDirectory = "";
+    private long segmentMaxBytes = 64L * 1024 * 1024;
+    // e.g. jobrunner.retention.jobs.simulatedJob4.max-age=1d
+    private Map<String, Policy> jobs = new HashMap<>();
+
+    public Policy policyFor(String jobName) {
+        Policy override = jobs.get(jobName);
+        Policy policy = new Policy();
+        policy.setMaxAge(override != null && override.getMaxAge() != null ? override.getMaxAge() : maxAge);
+        policy.setKeepLast(override != null && override.getKeepLast() != null ? override.getKeepLast() : keepLast);
+        policy.setAction(override != null && override.getAction() != null ? override.getAction() : action);
+        return policy;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the in-process trigger scheduler (prefix {@code jobrunner.scheduler}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.scheduler")
+public class SchedulerProperties {
+
+    private boolean enabled = true;
+    // Resolution of the timing wheel; triggers fire at most this late. At least 1
+    private long tickMillis = 100;
+    // Each level has 64 slots, so 4 levels at 100ms cover ~19 days before a trigger is re-cascaded. At least 1
+    private int wheelLevels = 4;
+    // A fire this much later than its scheduled time is treated as a misfire
+    private long misfireThresholdMillis = 5000;
+}
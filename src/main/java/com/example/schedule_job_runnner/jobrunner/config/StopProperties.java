@@ -0,0 +1,17 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for stopping running executions (prefix {@code jobrunner.stop}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.stop")
+public class StopProperties {
+
+    // How long a stop request waits for the execution to end before answering with STOPPING
+    private long awaitMillis = 2000;
+    // Stops whose execution has not ended after this long (e.g. it runs on another cluster node) are forgotten
+    private long trackMillis = 3_600_000;
+}
@@ -0,0 +1,28 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the per-subscriber SSE streams (prefix {@code jobrunner.stream}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.stream")
+public class StreamProperties {
+
+    public enum OverflowStrategy {
+        // Evict the oldest pending update to make room
+        DROP_OLDEST,
+        // Discard the incoming update unless it replaces one already pending
+        DROP_LATEST,
+        // Terminate the stream; the client reconnects and gets a fresh snapshot
+        DISCONNECT
+    }
+
+    // Updates for the same execution within this window are coalesced into the latest one, 0 sends immediately
+    private long coalesceWindowMillis = 250;
+    // Distinct pending updates kept per subscriber while it is not consuming
+    private int subscriberBufferSize = 256;
+    private OverflowStrategy overflowStrategy = OverflowStrategy.DROP_OLDEST;
+    private long heartbeatSeconds = 15;
+}
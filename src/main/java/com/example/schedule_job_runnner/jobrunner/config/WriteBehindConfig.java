@@ -0,0 +1,32 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import com.example.schedule_job_runnner.jobrunner.repository.WriteBehindJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Puts a {@link WriteBehindJobRepository} in front of the auto-configured job repository when
+ * {@code jobrunner.write-behind.enabled=true}. Being primary, it is what jobs, steps, the launcher and
+ * the operator are built with.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "jobrunner.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    @Bean
+    public WriteBehindJobRepository writeBehindJobRepository(@Qualifier("jobRepository") JobRepository jobRepository,
+                                                             WriteBehindProperties properties, MeterRegistry meterRegistry) {
+        return new WriteBehindJobRepository(jobRepository, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public JobRepository writeBehindJobRepositoryProxy(WriteBehindJobRepository writeBehindJobRepository) {
+        return writeBehindJobRepository.getProxy();
+    }
+}
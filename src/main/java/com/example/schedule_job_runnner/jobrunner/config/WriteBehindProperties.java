@@ -0,0 +1,18 @@
+package com.example.schedule_job_runnner.jobrunner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for write-behind of running execution updates (prefix {@code jobrunner.write-behind}).
+ */
+@Data
+@ConfigurationProperties(prefix = "jobrunner.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+    // Pending updates are written this often; also the longest a stop takes to reach a chunk step
+    private long flushIntervalMillis = 200;
+    // Executions and steps with a pending update; beyond this, updates are written straight away
+    private int maxPending = 10_000;
+}
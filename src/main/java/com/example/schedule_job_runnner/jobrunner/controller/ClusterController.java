@@ -0,0 +1,73 @@
+package com.example.schedule_job_runnner.jobrunner.controller;
+
+import com.example.schedule_job_runnner.jobrunner.cluster.ClusterCoordinator;
+import com.example.schedule_job_runnner.jobrunner.dto.ClusterLaunchDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.ClusterNodeDTO;
+import com.example.schedule_job_runnner.jobrunner.service.JdbcOffloader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cluster mode endpoints: launches posted here go to the shared launch queue and run on whichever
+ * node claims them, which need not be the node that accepted the request.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/cluster")
+@RequiredArgsConstructor
+@CrossOrigin
+@ConditionalOnProperty(prefix = "jobrunner.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+
+    private static final int MAX_LAUNCH_PAGE_SIZE = 500;
+
+    private final ClusterCoordinator clusterCoordinator;
+    private final JdbcOffloader jdbcOffloader;
+
+    @PostMapping("/launch/{jobName}")
+    public Mono<ResponseEntity<?>> enqueueLaunch(@PathVariable("jobName") String jobName,
+                                                 @RequestBody(required = false) JobController.LaunchRequest launchRequest) {
+        Map<String, Object> jobParameters = JobController.toJobParameters(jobName, launchRequest);
+        return jdbcOffloader.mono("clusterEnqueue", () -> clusterCoordinator.enqueue(jobName, jobParameters))
+                .<ResponseEntity<?>>map(launch -> ResponseEntity.status(HttpStatus.ACCEPTED).body(launch))
+                .onErrorResume(NoSuchJobException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown job: " + jobName)))
+                .onErrorResume(e -> {
+                    log.error("Error enqueueing launch of job: {}", jobName, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Error enqueueing launch: " + e.getMessage()));
+                });
+    }
+
+    @GetMapping("/launch/{id}")
+    public Mono<ResponseEntity<ClusterLaunchDTO>> getLaunch(@PathVariable long id) {
+        return jdbcOffloader.mono("clusterLaunch", () -> clusterCoordinator.getLaunch(id))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/launches")
+    public Mono<ResponseEntity<List<ClusterLaunchDTO>>> getLaunches(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "50") int limit) {
+        String normalizedStatus = status == null ? null : status.trim().toUpperCase();
+        int pageSize = Math.max(1, Math.min(limit, MAX_LAUNCH_PAGE_SIZE));
+        return jdbcOffloader.mono("clusterLaunches", () -> clusterCoordinator.getLaunches(normalizedStatus, pageSize))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/nodes")
+    public Mono<ResponseEntity<List<ClusterNodeDTO>>> getNodes() {
+        return jdbcOffloader.mono("clusterNodes", clusterCoordinator::getNodes)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -1,22 +1,41 @@
 package com.example.schedule_job_runnner.jobrunner.controller;
 
+import com.example.schedule_job_runnner.jobrunner.config.JobLaunchProperties;
 import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.BulkLaunchResultDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.ExecutionStopDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.JobExecutionPageDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.LaunchQueueDTO;
+import com.example.schedule_job_runnner.jobrunner.launch.BulkLaunchItem;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchExecutor;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchRejectedException;
 import com.example.schedule_job_runnner.jobrunner.service.JobService;
+import com.example.schedule_job_runnner.jobrunner.stop.ExecutionStopService;
+import com.example.schedule_job_runnner.jobrunner.stream.SubscriptionFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.launch.JobExecutionNotRunningException;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import org.springframework.batch.core.launch.NoSuchJobExecutionException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -28,112 +47,231 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 @CrossOrigin
 public class JobController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final JobService jobService;
+    private final JobLaunchProperties launchProperties;
+    private final ExecutionStopService executionStopService;
 
     @PostMapping("/launch/{jobName}")
-    public ResponseEntity<?> launchJob(@PathVariable("jobName") String jobName, 
-                                       @RequestBody(required = false) LaunchRequest launchRequest) {
-        try {
-            Map<String, Object> jobParameters = new HashMap<>();
-            String customName = (launchRequest != null && launchRequest.getCustomJobName() != null) 
-                                ? launchRequest.getCustomJobName() 
-                                : jobName + "_run_" + System.currentTimeMillis();
-            long duration = (launchRequest != null && launchRequest.getDurationInSeconds() != null) 
-                            ? launchRequest.getDurationInSeconds() 
-                            : 10L; // Default duration 10 seconds
-
-            jobParameters.put("customJobName", customName);
-            jobParameters.put("durationInSeconds", duration);
-            // Add launchTime for uniqueness, JobService also adds one if not present
-            jobParameters.put("launchTime", System.currentTimeMillis());
-
-            log.info("Received request to launch job: {} with customName: {}, duration: {}s", 
-                jobName, customName, duration);
-
-            BatchJobExecutionInfoDTO executionInfo = jobService.launchJob(jobName, jobParameters);
-            return ResponseEntity.status(HttpStatus.ACCEPTED).body(executionInfo);
-        } catch (Exception e) {
-            log.error("Error launching job: {}", jobName, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error launching job: " + e.getMessage());
+    public Mono<ResponseEntity<?>> launchJob(@PathVariable("jobName") String jobName, 
+                                             @RequestBody(required = false) LaunchRequest launchRequest,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Map<String, Object> jobParameters = toJobParameters(jobName, launchRequest);
+        String customName = (String) jobParameters.get("customJobName");
+        Object duration = jobParameters.get("durationInSeconds");
+
+        log.info("Received request to launch job: {} with customName: {}, duration: {}s", 
+            jobName, customName, duration);
+
+        return jobService.launchJobAsync(jobName, jobParameters, idempotencyKey)
+                .<ResponseEntity<?>>map(executionInfo -> ResponseEntity.status(HttpStatus.ACCEPTED).body(executionInfo))
+                .onErrorResume(JobLaunchRejectedException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body("Launch rejected for job " + jobName + ": " + e.getMessage())))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body("Repository is saturated, try again later")))
+                .onErrorResume(e -> {
+                    log.error("Error launching job: {}", jobName, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Error launching job: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * Launches a list of jobs in one request. Results are streamed as newline-delimited JSON, one per
+     * item in request order, as each chunk of launches is accepted.
+     */
+    @PostMapping(value = "/launch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkLaunchResultDTO> launchJobs(@RequestBody List<BulkLaunchRequest> launchRequests) {
+        int maxItems = launchProperties.getBulkMaxItems();
+        if (launchRequests.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxItems + " launches are accepted per request, got " + launchRequests.size());
+        }
+        long launchTime = System.currentTimeMillis();
+        List<BulkLaunchItem> items = new ArrayList<>(launchRequests.size());
+        for (int i = 0; i < launchRequests.size(); i++) {
+            BulkLaunchRequest request = launchRequests.get(i);
+            if (request == null || request.getJobName() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item " + i + " has no jobName");
+            }
+            Map<String, Object> jobParameters = toJobParameters(request.getJobName(), request);
+            // All items share one launch time, the index keeps their job instances distinct
+            jobParameters.put("launchTime", launchTime);
+            jobParameters.put("launchIndex", (long) i);
+            items.add(new BulkLaunchItem(request.getJobName(), jobParameters));
         }
+        log.info("Received bulk launch request with {} items", items.size());
+        return jobService.launchJobs(items);
     }
 
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<BatchJobExecutionInfoDTO> streamJobUpdates() {
-        return jobService.getJobExecutionUpdates();
+    public Flux<ServerSentEvent<Object>> streamJobUpdates(
+            @RequestParam(required = false) Set<String> jobName,
+            @RequestParam(required = false) Set<String> status,
+            @RequestParam(required = false) Set<Long> executionId) {
+        Set<String> statuses = status == null ? null : status.stream()
+                .map(s -> s.trim().toUpperCase())
+                .collect(Collectors.toSet());
+        return jobService.getJobExecutionUpdates(new SubscriptionFilter(jobName, statuses, executionId));
     }
 
     @GetMapping("/{jobName}/recent")
-    public ResponseEntity<List<BatchJobExecutionInfoDTO>> getRecentJobs(
+    public Mono<ResponseEntity<List<BatchJobExecutionInfoDTO>>> getRecentJobs(
             @PathVariable String jobName,
             @RequestParam(defaultValue = "10") int count) {
+        int pageSize = Math.max(1, Math.min(count, MAX_HISTORY_PAGE_SIZE));
+        return jobService.getRecentJobExecutionsForJob(jobName, pageSize)
+                .collectList()
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Error fetching recent jobs for {}: {}", jobName, e.getMessage());
+                    return Mono.just(ResponseEntity.status(errorStatus(e)).<List<BatchJobExecutionInfoDTO>>build());
+                });
+    }
+
+    @GetMapping("/{jobName}/history")
+    public Mono<ResponseEntity<JobExecutionPageDTO>> getJobHistory(
+            @PathVariable String jobName,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Set<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        Set<BatchStatus> statuses;
         try {
-            List<BatchJobExecutionInfoDTO> executions = jobService.getRecentJobExecutionsForJob(jobName, count);
-            return ResponseEntity.ok(executions);
-        } catch (Exception e) {
-            log.error("Error fetching recent jobs for {}: {}", jobName, e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            statuses = status == null ? null : status.stream()
+                    .map(s -> BatchStatus.valueOf(s.trim().toUpperCase()))
+                    .collect(Collectors.toSet());
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
         }
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        return jobService.getJobExecutionHistory(jobName, statuses, from, to, cursor, pageSize)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Error fetching history for {}: {}", jobName, e.getMessage());
+                    return Mono.just(ResponseEntity.status(errorStatus(e)).<JobExecutionPageDTO>build());
+                });
     }
     
     @GetMapping("/execution/{id}")
-    public ResponseEntity<BatchJobExecutionInfoDTO> getJobExecutionById(@PathVariable Long id) {
-        BatchJobExecutionInfoDTO execution = jobService.getJobExecutionById(id);
-        if (execution != null) {
-            return ResponseEntity.ok(execution);
-        }
-        return ResponseEntity.notFound().build();
+    public Mono<ResponseEntity<BatchJobExecutionInfoDTO>> getJobExecutionById(@PathVariable Long id) {
+        return jobService.getJobExecutionById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stops a running execution. Answers 200 with the final state once the execution has ended, or 202
+     * with status STOPPING if it is still winding down after {@code jobrunner.stop.await-millis}.
+     */
+    @PostMapping("/execution/{id}/stop")
+    public Mono<ResponseEntity<ExecutionStopDTO>> stopJobExecution(@PathVariable Long id) {
+        return executionStopService.stop(id)
+                .map(stop -> ResponseEntity.status(stop.getLatencyMillis() != null ? HttpStatus.OK : HttpStatus.ACCEPTED).body(stop))
+                .onErrorResume(NoSuchJobExecutionException.class, e -> Mono.just(ResponseEntity.notFound().<ExecutionStopDTO>build()))
+                .onErrorResume(JobExecutionNotRunningException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).<ExecutionStopDTO>build()))
+                .onErrorResume(e -> {
+                    log.error("Error stopping execution {}: {}", id, e.getMessage());
+                    return Mono.just(ResponseEntity.status(errorStatus(e)).<ExecutionStopDTO>build());
+                });
+    }
+
+    /**
+     * Stops every running execution of the job, streamed as newline-delimited JSON as each one ends
+     * (or is still stopping when the wait runs out).
+     */
+    @PostMapping(value = "/{jobName}/stop", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ExecutionStopDTO> stopJobExecutions(@PathVariable String jobName) {
+        return executionStopService.stopAll(jobName)
+                .onErrorMap(NoSuchJobException.class, e -> new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage()));
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<LaunchQueueDTO> getLaunchQueue() {
+        // In-memory view of the launch executor, no repository access
+        return ResponseEntity.ok(jobService.getLaunchQueue());
     }
 
     @GetMapping("/dashboard-snapshot")
     public ResponseEntity<List<BatchJobExecutionInfoDTO>> getDashboardSnapshot() {
-        try {
-            // In a real app, jobNames might come from JobRegistry or a config
-            // --- TODO: Make jobNames dynamic --- 
-            List<String> jobNames = List.of("simulatedJob", "simulatedJob2", "simulatedJob3", "simulatedJob4"); 
-            List<BatchJobExecutionInfoDTO> snapshot = new ArrayList<>();
-
-            for (String jobName : jobNames) {
-                // Only add currently running jobs
-                try {
-                    snapshot.addAll(jobService.getRunningJobExecutions(jobName));
-                } catch (Exception e) {
-                    log.warn("Could not retrieve running jobs for {}: {}", jobName, e.getMessage());
-                }
-                // --- REMOVED fetching recent jobs --- 
-            }
+        // Served from the in-memory live execution index, no repository access
+        return ResponseEntity.ok(jobService.getDashboardSnapshot());
+    }
 
-            // De-duplicate based on executionId - still useful if a job restarts or has multiple steps reporting
-            List<BatchJobExecutionInfoDTO> distinctSnapshot = snapshot.stream()
-                    .filter(e -> e != null && e.getExecutionId() != null) 
-                    .collect(Collectors.collectingAndThen(
-                            Collectors.toCollection(() -> new TreeSet<>(Comparator.comparing(BatchJobExecutionInfoDTO::getExecutionId))),
-                            ArrayList::new
-                    ));
-            
-            // Sort them by start time descending (most recent first)
-            // Null start times will be treated as older
-            distinctSnapshot.sort((j1, j2) -> {
-                LocalDateTime t1 = j1.getStartTime();
-                LocalDateTime t2 = j2.getStartTime();
-                if (t1 == null && t2 == null) return 0;
-                if (t1 == null) return 1; // nulls (older/not started) go last
-                if (t2 == null) return -1; // non-nulls (started) go first
-                return t2.compareTo(t1); // Most recent first
-            });
-
-            return ResponseEntity.ok(distinctSnapshot);
-        } catch (Exception e) {
-            log.error("Error fetching dashboard snapshot", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    static Map<String, Object> toJobParameters(String jobName, LaunchRequest launchRequest) {
+        Map<String, Object> jobParameters = new HashMap<>();
+        String customName = (launchRequest != null && launchRequest.getCustomJobName() != null) 
+                            ? launchRequest.getCustomJobName() 
+                            : jobName + "_run_" + System.currentTimeMillis();
+        long duration = (launchRequest != null && launchRequest.getDurationInSeconds() != null) 
+                        ? launchRequest.getDurationInSeconds() 
+                        : 10L; // Default duration 10 seconds
+
+        jobParameters.put("customJobName", customName);
+        jobParameters.put("durationInSeconds", duration);
+        if (launchRequest != null) {
+            launchRequest.addOptionalParameters(jobParameters);
         }
+        // Add launchTime for uniqueness, JobService also adds one if not present
+        jobParameters.put("launchTime", System.currentTimeMillis());
+        return jobParameters;
+    }
+
+    // The JDBC scheduler queue being full is back-pressure, not a server fault
+    private static HttpStatus errorStatus(Throwable e) {
+        return e instanceof RejectedExecutionException ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
     }
 
     // Inner class for launch request body
     @lombok.Data // Using lombok.Data directly for brevity
-    private static class LaunchRequest {
+    static class LaunchRequest {
         private String customJobName;
         private Long durationInSeconds;
+        // Optional simulation profile, see SimulationProfile
+        private Long durationMillis;
+        private Long cpuBurnMillis;
+        private Long allocationBytes;
+        private Double failureProbability;
+        private Double stopProbability;
+        // Partitions for simulatedPartitionedJob
+        private Long partitionCount;
+        // File processing pipeline for fileProcessingJob
+        private String inputFile;
+        private String outputFile;
+        private Boolean overwriteOutput;
+        private Long chunkSize;
+        private Long pipelineDepth;
+        // Launch queue placement, see JobLaunchExecutor
+        private Integer priority;
+        private String tenant;
+
+        void addOptionalParameters(Map<String, Object> jobParameters) {
+            if (durationMillis != null) jobParameters.put("durationMillis", durationMillis);
+            if (cpuBurnMillis != null) jobParameters.put("cpuBurnMillis", cpuBurnMillis);
+            if (allocationBytes != null) jobParameters.put("allocationBytes", allocationBytes);
+            if (failureProbability != null) jobParameters.put("failureProbability", failureProbability);
+            if (stopProbability != null) jobParameters.put("stopProbability", stopProbability);
+            if (partitionCount != null) jobParameters.put("partitionCount", partitionCount);
+            if (inputFile != null) jobParameters.put("inputFile", inputFile);
+            if (outputFile != null) jobParameters.put("outputFile", outputFile);
+            if (overwriteOutput != null) jobParameters.put("overwriteOutput", overwriteOutput.toString());
+            if (chunkSize != null) jobParameters.put("chunkSize", chunkSize);
+            if (pipelineDepth != null) jobParameters.put("pipelineDepth", pipelineDepth);
+            if (priority != null) jobParameters.put(JobLaunchExecutor.PRIORITY_PARAMETER, priority.longValue());
+            if (tenant != null) jobParameters.put(JobLaunchExecutor.TENANT_PARAMETER, tenant);
+        }
+    }
+
+    // One item of a bulk launch: the launch request plus the job it is for
+    @lombok.Data
+    @lombok.EqualsAndHashCode(callSuper = true)
+    private static class BulkLaunchRequest extends LaunchRequest {
+        private String jobName;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.example.schedule_job_runnner.jobrunner.controller;
+
+import com.example.schedule_job_runnner.jobrunner.dto.RetentionRunDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.RetentionStatusDTO;
+import com.example.schedule_job_runnner.jobrunner.retention.RetentionService;
+import com.example.schedule_job_runnner.jobrunner.service.JdbcOffloader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/retention")
+@RequiredArgsConstructor
+@CrossOrigin
+public class RetentionController {
+
+    private final RetentionService retentionService;
+    private final JdbcOffloader jdbcOffloader;
+
+    @GetMapping
+    public ResponseEntity<RetentionStatusDTO> getStatus() {
+        return ResponseEntity.ok(retentionService.getStatus());
+    }
+
+    /**
+     * Applies the retention policies now, whether or not the background runs are enabled.
+     */
+    @PostMapping("/run")
+    public Mono<ResponseEntity<RetentionRunDTO>> run() {
+        return jdbcOffloader.mono("retention", retentionService::runOnce)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
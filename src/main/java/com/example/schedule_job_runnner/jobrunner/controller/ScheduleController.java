@@ -0,0 +1,92 @@
+package com.example.schedule_job_runnner.jobrunner.controller;
+
+import com.example.schedule_job_runnner.jobrunner.dto.JobTriggerDTO;
+import com.example.schedule_job_runnner.jobrunner.scheduler.JobSchedulerService;
+import com.example.schedule_job_runnner.jobrunner.scheduler.JobTrigger;
+import com.example.schedule_job_runnner.jobrunner.scheduler.MisfirePolicy;
+import com.example.schedule_job_runnner.jobrunner.scheduler.TriggerType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/schedules")
+@RequiredArgsConstructor
+@CrossOrigin
+public class ScheduleController {
+
+    private final JobSchedulerService schedulerService;
+
+    @PostMapping
+    public ResponseEntity<?> addTrigger(@RequestBody TriggerRequest request) {
+        try {
+            Map<String, Object> jobParameters = new HashMap<>();
+            if (request.getJobParameters() != null) {
+                // JSON integers arrive as Integer, JobService only maps Long/Double/String/Date parameters
+                request.getJobParameters().forEach((key, value) -> jobParameters.put(key,
+                        value instanceof Integer i ? Long.valueOf(i) : value instanceof Float f ? Double.valueOf(f) : value));
+            }
+            if (request.getCustomJobName() != null) {
+                jobParameters.put("customJobName", request.getCustomJobName());
+            }
+            if (request.getDurationInSeconds() != null) {
+                jobParameters.put("durationInSeconds", request.getDurationInSeconds());
+            }
+
+            JobTrigger trigger = schedulerService.addTrigger(request.getJobName(), request.getType(),
+                    request.getCronExpression(), request.getIntervalMillis(), request.getInitialDelayMillis(),
+                    request.getMisfirePolicy(), jobParameters);
+            return ResponseEntity.status(HttpStatus.CREATED).body(schedulerService.mapToDTO(trigger));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid trigger: " + e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<JobTriggerDTO>> getTriggers(@RequestParam(required = false) String jobName) {
+        List<JobTriggerDTO> triggers = schedulerService.getTriggers().stream()
+                .filter(t -> jobName == null || jobName.equals(t.getJobName()))
+                .sorted(Comparator.comparingLong(JobTrigger::getNextFireTimeMillis))
+                .map(schedulerService::mapToDTO)
+                .toList();
+        return ResponseEntity.ok(triggers);
+    }
+
+    @GetMapping("/{triggerId}")
+    public ResponseEntity<JobTriggerDTO> getTrigger(@PathVariable String triggerId) {
+        return schedulerService.getTrigger(triggerId)
+                .map(schedulerService::mapToDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{triggerId}")
+    public ResponseEntity<Void> removeTrigger(@PathVariable String triggerId) {
+        if (schedulerService.removeTrigger(triggerId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // Inner class for trigger request body
+    @lombok.Data
+    private static class TriggerRequest {
+        private String jobName;
+        private TriggerType type;
+        private String cronExpression; // Spring cron format, 6 fields: second minute hour day month weekday
+        private Long intervalMillis;
+        private Long initialDelayMillis;
+        private MisfirePolicy misfirePolicy;
+        private String customJobName;
+        private Long durationInSeconds;
+        private Map<String, Object> jobParameters;
+    }
+}
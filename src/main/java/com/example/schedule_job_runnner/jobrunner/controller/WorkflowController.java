@@ -0,0 +1,71 @@
+package com.example.schedule_job_runnner.jobrunner.controller;
+
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowDTO;
+import com.example.schedule_job_runnner.jobrunner.workflow.WorkflowNode;
+import com.example.schedule_job_runnner.jobrunner.workflow.WorkflowService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/workflows")
+@RequiredArgsConstructor
+@CrossOrigin
+public class WorkflowController {
+
+    private final WorkflowService workflowService;
+
+    /**
+     * Starts a workflow and answers 201 with its initial state; progress follows on the stream as
+     * {@code workflow} events.
+     */
+    @PostMapping
+    public ResponseEntity<?> startWorkflow(@RequestBody WorkflowRequest request) {
+        try {
+            List<WorkflowNode> nodes = new ArrayList<>();
+            if (request.getNodes() != null) {
+                for (WorkflowNodeRequest node : request.getNodes()) {
+                    nodes.add(new WorkflowNode(node.getId(), node.getJobName(), node.getDependsOn(),
+                            JobController.toJobParameters(node.getJobName(), node)));
+                }
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(workflowService.start(request.getName(), nodes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid workflow: " + e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<WorkflowDTO>> getWorkflows() {
+        return ResponseEntity.ok(workflowService.getWorkflows());
+    }
+
+    @GetMapping("/{workflowId}")
+    public ResponseEntity<WorkflowDTO> getWorkflow(@PathVariable String workflowId) {
+        return workflowService.getWorkflow(workflowId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Inner class for workflow request body
+    @lombok.Data
+    private static class WorkflowRequest {
+        private String name;
+        private List<WorkflowNodeRequest> nodes;
+    }
+
+    // One job of the workflow: the launch request plus its place in the graph
+    @lombok.Data
+    @lombok.EqualsAndHashCode(callSuper = true)
+    private static class WorkflowNodeRequest extends JobController.LaunchRequest {
+        private String id;
+        private String jobName;
+        private List<String> dependsOn;
+    }
+}
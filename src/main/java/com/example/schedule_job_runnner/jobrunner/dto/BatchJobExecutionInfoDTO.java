@@ -1,5 +1,7 @@
 package com.example.schedule_job_runnner.jobrunner.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +10,8 @@ import java.util.Map;
 
 @Data
 @Builder
+@AllArgsConstructor
+@JsonSerialize(using = BatchJobExecutionInfoDTOSerializer.class)
 public class BatchJobExecutionInfoDTO {
     private Long executionId;
     private Long jobInstanceId;
@@ -18,4 +22,4 @@ public class BatchJobExecutionInfoDTO {
     private String exitCode; // org.springframework.batch.core.ExitStatus.getExitCode()
     private String exitDescription; // org.springframework.batch.core.ExitStatus.getExitDescription()
     private Map<String, Object> jobParameters;
-} 
\ No newline at end of file
+}
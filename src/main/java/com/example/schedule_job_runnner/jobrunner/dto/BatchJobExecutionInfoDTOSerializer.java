@@ -0,0 +1,102 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Writes {@link BatchJobExecutionInfoDTO} straight to the generator for the REST and SSE responses.
+ * <p>
+ * Produces the same JSON as the default bean serializer (ISO-8601 date-times, nulls included) without
+ * its per-property reflection; field names are pre-encoded and common parameter value types are
+ * written directly.
+ */
+public class BatchJobExecutionInfoDTOSerializer extends StdSerializer<BatchJobExecutionInfoDTO> {
+
+    private static final SerializedString EXECUTION_ID = new SerializedString("executionId");
+    private static final SerializedString JOB_INSTANCE_ID = new SerializedString("jobInstanceId");
+    private static final SerializedString JOB_NAME = new SerializedString("jobName");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString START_TIME = new SerializedString("startTime");
+    private static final SerializedString END_TIME = new SerializedString("endTime");
+    private static final SerializedString EXIT_CODE = new SerializedString("exitCode");
+    private static final SerializedString EXIT_DESCRIPTION = new SerializedString("exitDescription");
+    private static final SerializedString JOB_PARAMETERS = new SerializedString("jobParameters");
+
+    public BatchJobExecutionInfoDTOSerializer() {
+        super(BatchJobExecutionInfoDTO.class);
+    }
+
+    @Override
+    public void serialize(BatchJobExecutionInfoDTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(dto);
+        gen.writeFieldName(EXECUTION_ID);
+        writeLong(gen, dto.getExecutionId());
+        gen.writeFieldName(JOB_INSTANCE_ID);
+        writeLong(gen, dto.getJobInstanceId());
+        gen.writeFieldName(JOB_NAME);
+        gen.writeString(dto.getJobName());
+        gen.writeFieldName(STATUS);
+        gen.writeString(dto.getStatus());
+        gen.writeFieldName(START_TIME);
+        writeDateTime(gen, dto.getStartTime());
+        gen.writeFieldName(END_TIME);
+        writeDateTime(gen, dto.getEndTime());
+        gen.writeFieldName(EXIT_CODE);
+        gen.writeString(dto.getExitCode());
+        gen.writeFieldName(EXIT_DESCRIPTION);
+        gen.writeString(dto.getExitDescription());
+        gen.writeFieldName(JOB_PARAMETERS);
+        writeParameters(gen, dto.getJobParameters(), provider);
+        gen.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator gen, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+
+    private static void writeParameters(JsonGenerator gen, Map<String, Object> parameters, SerializerProvider provider) throws IOException {
+        if (parameters == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            gen.writeFieldName(entry.getKey());
+            Object value = entry.getValue();
+            if (value instanceof String string) {
+                gen.writeString(string);
+            } else if (value instanceof Long number) {
+                gen.writeNumber(number);
+            } else if (value instanceof Integer number) {
+                gen.writeNumber(number);
+            } else if (value instanceof Double number) {
+                gen.writeNumber(number);
+            } else if (value instanceof Boolean bool) {
+                gen.writeBoolean(bool);
+            } else {
+                // Dates and anything else follow the application's ObjectMapper settings
+                provider.defaultSerializeValue(value, gen);
+            }
+        }
+        gen.writeEndObject();
+    }
+}
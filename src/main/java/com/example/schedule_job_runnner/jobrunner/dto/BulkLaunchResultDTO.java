@@ -0,0 +1,19 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkLaunchResultDTO {
+
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED"; // launch queue full, safe to retry
+    public static final String FAILED = "FAILED";
+
+    private int index; // position of the item in the request
+    private String jobName;
+    private String result;
+    private Long executionId;
+    private String message;
+}
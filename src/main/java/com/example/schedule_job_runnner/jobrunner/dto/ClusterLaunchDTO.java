@@ -0,0 +1,19 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ClusterLaunchDTO {
+    private Long id;
+    private String jobName;
+    private String status; // PENDING, CLAIMED, RUNNING, then the execution's batch status (FAILED also when given up on)
+    private int priority;
+    private String ownerNode;
+    private Long leaseUntil; // epoch millis, null unless claimed or running
+    private Long jobExecutionId;
+    private int attempts; // times recovered from a dead node
+    private String message;
+    private Long createdAt;
+}
@@ -0,0 +1,14 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ClusterNodeDTO {
+    private String nodeId;
+    private Long startedAt;
+    private Long heartbeatAt;
+    private boolean alive; // heartbeat within the lease period
+    private boolean self;
+}
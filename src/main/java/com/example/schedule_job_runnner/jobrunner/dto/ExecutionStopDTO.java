@@ -0,0 +1,19 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ExecutionStopDTO {
+    private Long executionId;
+    private String jobName;
+    private String status; // STOPPING until the execution has ended, then its final status
+    private String exitCode;
+    private String exitDescription; // where the work was when it stopped
+    private LocalDateTime requestedAt;
+    private int interruptedThreads;
+    private Long latencyMillis; // from the stop request to the execution ending, null while still stopping
+}
@@ -0,0 +1,13 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class JobExecutionPageDTO {
+    private List<BatchJobExecutionInfoDTO> executions;
+    private Long nextCursor; // pass back as ?cursor= to get the next (older) page, null when there is none
+}
@@ -0,0 +1,25 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class JobTriggerDTO {
+    private String triggerId;
+    private String jobName;
+    private String type; // com.example.schedule_job_runnner.jobrunner.scheduler.TriggerType
+    private String cronExpression;
+    private Long intervalMillis;
+    private String misfirePolicy;
+    private Map<String, Object> jobParameters;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextFireTime;
+    private LocalDateTime lastFireTime;
+    private long fireCount;
+    private long misfireCount;
+    private long rejectedCount;
+}
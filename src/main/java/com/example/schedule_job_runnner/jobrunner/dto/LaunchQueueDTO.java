@@ -0,0 +1,39 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class LaunchQueueDTO {
+    private int running;
+    private int queued;
+    private int maxConcurrent;
+    private int queueCapacity;
+    private Map<String, Double> tenantRateLimits; // launches per second
+    private List<Lane> lanes;
+
+    @Data
+    @Builder
+    public static class Lane {
+        private String jobName;
+        private int weight;
+        private int running;
+        private int queued;
+        private int maxConcurrent; // 0 when only the global cap applies
+        private Double rateLimitPerSecond; // null when unlimited
+        private Map<Integer, Integer> queuedByPriority;
+        private List<Entry> next; // the launches this lane will start next, highest priority first
+    }
+
+    @Data
+    @Builder
+    public static class Entry {
+        private int priority;
+        private String tenant;
+        private long waitingMillis;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PartitionProgressDTO {
+    private Long executionId;
+    private String jobName;
+    private Long stepExecutionId;
+    private String stepName;
+    private int partition;
+    private int partitionCount;
+    private int percentComplete;
+    private String status; // STARTED while running, then COMPLETED, FAILED or STOPPED
+    private String thread;
+}
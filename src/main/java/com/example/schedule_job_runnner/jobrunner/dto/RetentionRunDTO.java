@@ -0,0 +1,17 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class RetentionRunDTO {
+    private LocalDateTime startedAt;
+    private long durationMillis;
+    private int batches;
+    private long archived; // executions written to the archive before being deleted
+    private long deleted; // executions deleted from the repository, archived ones included
+    private String error; // set when the run stopped early
+}
@@ -0,0 +1,15 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RetentionStatusDTO {
+    private boolean enabled;
+    private boolean running;
+    private RetentionRunDTO lastRun;
+    private String archiveDirectory;
+    private int archiveBlocks;
+    private long archivedExecutions;
+}
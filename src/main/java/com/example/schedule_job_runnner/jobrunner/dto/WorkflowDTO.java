@@ -0,0 +1,18 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class WorkflowDTO {
+    private String workflowId;
+    private String name;
+    private String status; // RUNNING, then COMPLETED if every job completed, otherwise FAILED
+    private LocalDateTime createdAt;
+    private LocalDateTime endedAt;
+    private List<WorkflowNodeDTO> nodes; // in definition order
+}
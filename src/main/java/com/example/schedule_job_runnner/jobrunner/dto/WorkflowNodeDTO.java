@@ -0,0 +1,20 @@
+package com.example.schedule_job_runnner.jobrunner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class WorkflowNodeDTO {
+    private String nodeId;
+    private String jobName;
+    private List<String> dependsOn;
+    private String status; // PENDING, LAUNCHING, RUNNING, COMPLETED, FAILED, STOPPED or SKIPPED
+    private Long executionId;
+    private LocalDateTime startedAt; // when the launch was accepted
+    private LocalDateTime endedAt;
+    private String message; // why the job failed, could not be launched or was skipped
+}
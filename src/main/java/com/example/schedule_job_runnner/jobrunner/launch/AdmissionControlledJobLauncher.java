@@ -0,0 +1,37 @@
+package com.example.schedule_job_runnner.jobrunner.launch;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRestartException;
+
+/**
+ * {@link TaskExecutorJobLauncher} that asks the {@link JobLaunchExecutor} for a slot before the
+ * job instance and execution are created, so rejected launches leave no trace in the repository.
+ * The launch is queued with the priority and tenant found in its job parameters.
+ */
+public class AdmissionControlledJobLauncher extends TaskExecutorJobLauncher {
+
+    private final JobLaunchExecutor launchExecutor;
+
+    public AdmissionControlledJobLauncher(JobLaunchExecutor launchExecutor) {
+        this.launchExecutor = launchExecutor;
+        setTaskExecutor(launchExecutor);
+    }
+
+    @Override
+    public JobExecution run(Job job, JobParameters jobParameters) throws JobExecutionAlreadyRunningException,
+            JobRestartException, JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        JobLaunchExecutor.LaunchTicket ticket = launchExecutor.admit(job.getName(), jobParameters);
+        launchExecutor.bind(ticket);
+        try {
+            return super.run(job, jobParameters);
+        } finally {
+            launchExecutor.unbind(ticket);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.schedule_job_runnner.jobrunner.launch;
+
+import java.util.Map;
+
+/**
+ * One entry of a bulk launch: the job to run and its parameters.
+ */
+public record BulkLaunchItem(String jobName, Map<String, Object> parameters) {
+}
@@ -0,0 +1,465 @@
+package com.example.schedule_job_runnner.jobrunner.launch;
+
+import com.example.schedule_job_runnner.jobrunner.config.JobLaunchProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.LaunchQueueDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, prioritised and fair executor for job launches.
+ * <p>
+ * At most {@code maxConcurrent} executions run at once (optionally capped per job name), and at most
+ * {@code queueCapacity} more wait for a slot. Admission happens through {@link #admit} before anything
+ * is written to the job repository, so a saturated runner turns launches away instead of piling up
+ * threads.
+ * <p>
+ * Waiting launches sit in one lane per job name, split by priority (the {@code priority} job parameter,
+ * 0 to 9, higher first). Enqueueing is lock-free; a single dispatcher at a time (whoever wins the
+ * work-in-progress counter) hands free slots out by strict priority, and between the job names waiting
+ * at the same priority by smooth weighted round robin on their configured weights. Per job and per
+ * tenant (the {@code tenant} job parameter) token buckets limit how fast launches are started; a lane
+ * whose next launch is rate limited is skipped until tokens are available.
+ */
+@Slf4j
+public class JobLaunchExecutor implements TaskExecutor, DisposableBean {
+
+    public static final String PRIORITY_PARAMETER = "priority";
+    public static final String TENANT_PARAMETER = "tenant";
+    public static final int MIN_PRIORITY = 0;
+    public static final int MAX_PRIORITY = 9;
+    public static final int DEFAULT_PRIORITY = 5;
+
+    private static final String UNASSIGNED_JOB = "_unassigned";
+    private static final long RATE_LIMIT_RETRY_MILLIS = 20;
+    private static final int SNAPSHOT_ENTRIES_PER_LANE = 10;
+
+    // Ticket admitted by the launcher for the launch currently in progress on this thread
+    private static final ThreadLocal<LaunchTicket> CURRENT_TICKET = new ThreadLocal<>();
+
+    private final JobLaunchProperties properties;
+    private final ExecutorService threads;
+    private final ScheduledExecutorService retryTimer;
+
+    // Reserved + queued + running, the quantity admission is checked against
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicIntegerArray queuedAtPriority = new AtomicIntegerArray(MAX_PRIORITY + 1);
+    private final LongAdder rejected = new LongAdder();
+
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final List<Lane> laneOrder = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger dispatchWip = new AtomicInteger();
+    private final AtomicBoolean retryScheduled = new AtomicBoolean();
+    // Dispatcher state, only touched by the thread currently holding dispatchWip
+    private final Map<String, TokenBucket> tenantBuckets = new HashMap<>();
+    private boolean rateLimitedInDrain;
+
+    public JobLaunchExecutor(JobLaunchProperties properties) {
+        this.properties = properties;
+        if (properties.getMode() == JobLaunchProperties.Mode.VIRTUAL) {
+            ThreadFactory factory = Thread.ofVirtual().name(properties.getThreadNamePrefix(), 0).factory();
+            this.threads = Executors.newThreadPerTaskExecutor(factory);
+        } else {
+            ThreadFactory factory = Thread.ofPlatform().name(properties.getThreadNamePrefix(), 0).factory();
+            // Concurrency is bounded by the dispatch logic below, the pool only recycles threads
+            this.threads = Executors.newCachedThreadPool(factory);
+        }
+        this.retryTimer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("launch-dispatch-retry").daemon().factory());
+        log.info("Job launch executor started in {} mode (maxConcurrent={}, queueCapacity={}, perJobMaxConcurrent={}, jobWeights={}, rateLimits={}, tenantRateLimits={})",
+                properties.getMode(), properties.getMaxConcurrent(), properties.getQueueCapacity(),
+                properties.getPerJobMaxConcurrent(), properties.getJobWeights(), properties.getRateLimits(),
+                properties.getTenantRateLimits());
+    }
+
+    public LaunchTicket admit(String jobName) {
+        return admit(jobName, DEFAULT_PRIORITY, null);
+    }
+
+    /**
+     * Reserves room for one launch, taking its priority and tenant from the job parameters.
+     */
+    public LaunchTicket admit(String jobName, JobParameters jobParameters) {
+        int priority = DEFAULT_PRIORITY;
+        String tenant = null;
+        if (jobParameters != null) {
+            JobParameter<?> priorityParameter = jobParameters.getParameter(PRIORITY_PARAMETER);
+            if (priorityParameter != null && priorityParameter.getValue() instanceof Number number) {
+                priority = number.intValue();
+            }
+            JobParameter<?> tenantParameter = jobParameters.getParameter(TENANT_PARAMETER);
+            if (tenantParameter != null && tenantParameter.getValue() != null) {
+                tenant = tenantParameter.getValue().toString();
+            }
+        }
+        return admit(jobName, priority, tenant);
+    }
+
+    /**
+     * Reserves room for one launch of the given job.
+     *
+     * @throws JobLaunchRejectedException if running, queued and reserved launches already fill the executor
+     */
+    public LaunchTicket admit(String jobName, int priority, String tenant) {
+        int limit = properties.getMaxConcurrent() + properties.getQueueCapacity();
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                throw new JobLaunchRejectedException(jobName,
+                        "Launch queue is full (" + running.get() + " running, " + queued.get() + " queued)");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new LaunchTicket(jobName, Math.max(MIN_PRIORITY, Math.min(MAX_PRIORITY, priority)), tenant);
+            }
+        }
+    }
+
+    /**
+     * Makes the ticket the one used by the next {@link #execute(Runnable)} call on this thread.
+     */
+    public void bind(LaunchTicket ticket) {
+        CURRENT_TICKET.set(ticket);
+    }
+
+    /**
+     * Clears the thread binding and gives the reservation back if the ticket was never used,
+     * e.g. because the launcher failed before handing the job over.
+     */
+    public void unbind(LaunchTicket ticket) {
+        CURRENT_TICKET.remove();
+        release(ticket);
+    }
+
+    public void release(LaunchTicket ticket) {
+        if (ticket.used.compareAndSet(false, true)) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        LaunchTicket ticket = CURRENT_TICKET.get();
+        if (ticket == null || ticket.used.get()) {
+            try {
+                ticket = admit(UNASSIGNED_JOB);
+            } catch (JobLaunchRejectedException e) {
+                throw new TaskRejectedException(e.getMessage(), e);
+            }
+        }
+        execute(ticket, task);
+    }
+
+    /**
+     * Queues the task under an admitted ticket; it starts as soon as the dispatcher gives it a slot.
+     */
+    public void execute(LaunchTicket ticket, Runnable task) {
+        if (!ticket.used.compareAndSet(false, true)) {
+            throw new TaskRejectedException("Launch ticket for job '" + ticket.jobName + "' was already used");
+        }
+        if (threads.isShutdown()) {
+            inFlight.decrementAndGet();
+            throw new TaskRejectedException("Job launch executor is shut down");
+        }
+        Lane lane = lanes.computeIfAbsent(ticket.jobName, this::newLane);
+        // Counted before the offer, so the dispatcher never sees a launch it has not counted
+        queued.incrementAndGet();
+        queuedAtPriority.incrementAndGet(ticket.priority);
+        lane.queued.incrementAndGet();
+        lane.byPriority[ticket.priority].offer(new PendingLaunch(ticket.jobName, ticket.priority, ticket.tenant, task, System.nanoTime()));
+        dispatch();
+    }
+
+    private Lane newLane(String jobName) {
+        Double rate = properties.getRateLimits().get(jobName);
+        Lane lane = new Lane(jobName, properties.weightFor(jobName), properties.limitFor(jobName),
+                rate != null && rate > 0 ? new TokenBucket(rate, System.nanoTime()) : null);
+        laneOrder.add(lane);
+        return lane;
+    }
+
+    /**
+     * Starts as many queued launches as there are free slots. Only one thread drains at a time; a call
+     * made while another thread is draining makes that thread drain once more instead.
+     */
+    private void dispatch() {
+        if (dispatchWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drain();
+            missed = dispatchWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drain() {
+        rateLimitedInDrain = false;
+        long now = System.nanoTime();
+        while (running.get() < properties.getMaxConcurrent() && queued.get() > 0) {
+            PendingLaunch next = pollNext(now);
+            if (next == null) {
+                break;
+            }
+            start(next);
+        }
+        if (rateLimitedInDrain && running.get() < properties.getMaxConcurrent()) {
+            scheduleRetry();
+        }
+    }
+
+    private PendingLaunch pollNext(long now) {
+        for (int priority = MAX_PRIORITY; priority >= MIN_PRIORITY; priority--) {
+            if (queuedAtPriority.get(priority) <= 0) {
+                continue;
+            }
+            // Smooth weighted round robin over the lanes that could start a launch at this priority
+            Lane chosen = null;
+            int totalWeight = 0;
+            for (Lane lane : laneOrder) {
+                PendingLaunch head = lane.byPriority[priority].peek();
+                if (head == null || !canStart(lane, head, now)) {
+                    continue;
+                }
+                lane.currentWeight += lane.weight;
+                totalWeight += lane.weight;
+                if (chosen == null || lane.currentWeight > chosen.currentWeight) {
+                    chosen = lane;
+                }
+            }
+            if (chosen != null) {
+                chosen.currentWeight -= totalWeight;
+                // Only the dispatcher polls, so this is the head that was checked above
+                PendingLaunch launch = chosen.byPriority[priority].poll();
+                queued.decrementAndGet();
+                queuedAtPriority.decrementAndGet(priority);
+                chosen.queued.decrementAndGet();
+                if (chosen.rateLimit != null) {
+                    chosen.rateLimit.take();
+                }
+                TokenBucket tenantBucket = tenantBucket(launch.tenant(), now);
+                if (tenantBucket != null) {
+                    tenantBucket.take();
+                }
+                return launch;
+            }
+        }
+        return null;
+    }
+
+    private boolean canStart(Lane lane, PendingLaunch head, long now) {
+        if (lane.maxConcurrent > 0 && lane.running.get() >= lane.maxConcurrent) {
+            return false;
+        }
+        if (lane.rateLimit != null && !lane.rateLimit.hasToken(now)) {
+            rateLimitedInDrain = true;
+            return false;
+        }
+        TokenBucket tenantBucket = tenantBucket(head.tenant(), now);
+        if (tenantBucket != null && !tenantBucket.hasToken(now)) {
+            rateLimitedInDrain = true;
+            return false;
+        }
+        return true;
+    }
+
+    private TokenBucket tenantBucket(String tenant, long now) {
+        if (tenant == null) {
+            return null;
+        }
+        Double rate = properties.getTenantRateLimits().get(tenant);
+        if (rate == null || rate <= 0) {
+            return null;
+        }
+        return tenantBuckets.computeIfAbsent(tenant, t -> new TokenBucket(rate, now));
+    }
+
+    private void scheduleRetry() {
+        if (retryScheduled.compareAndSet(false, true)) {
+            try {
+                retryTimer.schedule(() -> {
+                    retryScheduled.set(false);
+                    dispatch();
+                }, RATE_LIMIT_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                retryScheduled.set(false);
+            }
+        }
+    }
+
+    private void start(PendingLaunch launch) {
+        Lane lane = lanes.get(launch.jobName());
+        running.incrementAndGet();
+        lane.running.incrementAndGet();
+        try {
+            threads.execute(() -> run(lane, launch));
+        } catch (RejectedExecutionException e) {
+            log.error("Job launch executor is shut down, dropping queued launch of job '{}'", launch.jobName());
+            finish(lane);
+        }
+    }
+
+    private void run(Lane lane, PendingLaunch launch) {
+        try {
+            launch.task().run();
+        } catch (Throwable t) {
+            log.error("Uncaught error in launch of job '{}'", launch.jobName(), t);
+        } finally {
+            finish(lane);
+            dispatch();
+        }
+    }
+
+    private void finish(Lane lane) {
+        lane.running.decrementAndGet();
+        running.decrementAndGet();
+        inFlight.decrementAndGet();
+    }
+
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public JobLaunchProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Point-in-time view of the lanes and the launches each will start next. Counts are read without
+     * stopping the dispatcher, so they can be off by the launches in flight while it is taken.
+     */
+    public LaunchQueueDTO getQueueSnapshot() {
+        long now = System.nanoTime();
+        List<LaunchQueueDTO.Lane> laneViews = new ArrayList<>(laneOrder.size());
+        for (Lane lane : laneOrder) {
+            Map<Integer, Integer> byPriority = new LinkedHashMap<>();
+            List<LaunchQueueDTO.Entry> next = new ArrayList<>();
+            for (int priority = MAX_PRIORITY; priority >= MIN_PRIORITY; priority--) {
+                int count = 0;
+                for (PendingLaunch launch : lane.byPriority[priority]) {
+                    count++;
+                    if (next.size() < SNAPSHOT_ENTRIES_PER_LANE) {
+                        next.add(LaunchQueueDTO.Entry.builder()
+                                .priority(launch.priority())
+                                .tenant(launch.tenant())
+                                .waitingMillis(TimeUnit.NANOSECONDS.toMillis(now - launch.enqueuedAt()))
+                                .build());
+                    }
+                }
+                if (count > 0) {
+                    byPriority.put(priority, count);
+                }
+            }
+            laneViews.add(LaunchQueueDTO.Lane.builder()
+                    .jobName(lane.jobName)
+                    .weight(lane.weight)
+                    .running(lane.running.get())
+                    .queued(lane.queued.get())
+                    .maxConcurrent(Math.max(0, lane.maxConcurrent))
+                    .rateLimitPerSecond(lane.rateLimit != null ? lane.rateLimit.getRatePerSecond() : null)
+                    .queuedByPriority(byPriority)
+                    .next(next)
+                    .build());
+        }
+        return LaunchQueueDTO.builder()
+                .running(running.get())
+                .queued(queued.get())
+                .maxConcurrent(properties.getMaxConcurrent())
+                .queueCapacity(properties.getQueueCapacity())
+                .tenantRateLimits(properties.getTenantRateLimits())
+                .lanes(laneViews)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        threads.shutdown();
+        retryTimer.shutdownNow();
+    }
+
+    private record PendingLaunch(String jobName, int priority, String tenant, Runnable task, long enqueuedAt) {
+    }
+
+    private static final class Lane {
+        private final String jobName;
+        private final int weight;
+        private final int maxConcurrent;
+        private final TokenBucket rateLimit; // only used by the dispatcher
+        @SuppressWarnings("unchecked")
+        private final ConcurrentLinkedQueue<PendingLaunch>[] byPriority = new ConcurrentLinkedQueue[MAX_PRIORITY + 1];
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private int currentWeight; // smooth weighted round robin state, only used by the dispatcher
+
+        private Lane(String jobName, int weight, int maxConcurrent, TokenBucket rateLimit) {
+            this.jobName = jobName;
+            this.weight = weight;
+            this.maxConcurrent = maxConcurrent;
+            this.rateLimit = rateLimit;
+            for (int i = 0; i < byPriority.length; i++) {
+                byPriority[i] = new ConcurrentLinkedQueue<>();
+            }
+        }
+    }
+
+    /**
+     * A reserved launch slot. Single use: handed to {@link #execute(LaunchTicket, Runnable)} or released.
+     */
+    public static final class LaunchTicket {
+        private final String jobName;
+        private final int priority;
+        private final String tenant;
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private LaunchTicket(String jobName, int priority, String tenant) {
+            this.jobName = jobName;
+            this.priority = priority;
+            this.tenant = tenant;
+        }
+
+        public String getJobName() {
+            return jobName;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public String getTenant() {
+            return tenant;
+        }
+    }
+}
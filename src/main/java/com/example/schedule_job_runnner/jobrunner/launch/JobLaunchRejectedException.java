@@ -0,0 +1,18 @@
+package com.example.schedule_job_runnner.jobrunner.launch;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a launch cannot be admitted because the launch executor is saturated.
+ * Nothing has been written to the job repository when this is raised.
+ */
+@Getter
+public class JobLaunchRejectedException extends RuntimeException {
+
+    private final String jobName;
+
+    public JobLaunchRejectedException(String jobName, String message) {
+        super(message);
+        this.jobName = jobName;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.schedule_job_runnner.jobrunner.launch;
+
+/**
+ * Token bucket allowing {@code ratePerSecond} starts per second with bursts of up to one second's worth.
+ * Not thread-safe: only the launch executor's dispatcher uses it.
+ */
+final class TokenBucket {
+
+    private final double ratePerSecond;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, long nowNanos) {
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = Math.max(1.0, ratePerSecond);
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+
+    boolean hasToken(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= 1.0;
+    }
+
+    void take() {
+        tokens -= 1.0;
+    }
+
+    double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * ratePerSecond / 1_000_000_000.0);
+            refilledAt = nowNanos;
+        }
+    }
+}
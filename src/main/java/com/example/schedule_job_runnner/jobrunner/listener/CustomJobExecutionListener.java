@@ -2,8 +2,15 @@ package com.example.schedule_job_runnner.jobrunner.listener;
 
 // import com.example.schedule_job_runnner.jobrunner.service.JobService;
 // import lombok.RequiredArgsConstructor; // REMOVE
+import com.example.schedule_job_runnner.jobrunner.cluster.ClusterCoordinator;
+import com.example.schedule_job_runnner.jobrunner.metrics.JobRunnerMetrics;
+import com.example.schedule_job_runnner.jobrunner.repository.WriteBehindJobRepository;
 import com.example.schedule_job_runnner.jobrunner.service.JobService; // Ensure import is present
+import com.example.schedule_job_runnner.jobrunner.stop.ExecutionStopService;
+import com.example.schedule_job_runnner.jobrunner.workflow.WorkflowService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.beans.factory.annotation.Autowired; // ADD
@@ -17,12 +24,32 @@ public class CustomJobExecutionListener implements JobExecutionListener {
     @Autowired // ADD
     private JobService jobService;
 
+    @Autowired
+    private JobRunnerMetrics jobRunnerMetrics;
+
+    @Autowired
+    private ExecutionStopService executionStopService;
+
+    @Autowired
+    private WorkflowService workflowService;
+
+    // Only present when jobrunner.cluster.enabled=true
+    @Autowired(required = false)
+    private ClusterCoordinator clusterCoordinator;
+
+    // Only present when jobrunner.write-behind.enabled=true
+    @Autowired(required = false)
+    private WriteBehindJobRepository writeBehindJobRepository;
+
     // Default constructor needed if @RequiredArgsConstructor is removed and no other constructor exists
     public CustomJobExecutionListener() {}
 
     @Override
     public void beforeJob(JobExecution jobExecution) {
         log.info("Job '{}' (executionId: {}) is starting.", jobExecution.getJobInstance().getJobName(), jobExecution.getId());
+        if (jobRunnerMetrics != null) {
+            jobRunnerMetrics.recordStarted(jobExecution);
+        }
         // Potentially call jobService here if needed, e.g., jobService.processJobExecutionUpdate(jobExecution);
         // to ensure a DTO is emitted for the STARTING/RUNNING state before the job logic begins.
         // For now, relying on launchJob's emission and afterJob for terminal status, but this is a good place for an early update.
@@ -37,8 +64,38 @@ public class CustomJobExecutionListener implements JobExecutionListener {
                  jobExecution.getJobInstance().getJobName(), 
                  jobExecution.getId(), 
                  jobExecution.getStatus());
+        if (jobRunnerMetrics != null) {
+            jobRunnerMetrics.recordFinished(jobExecution);
+        }
+        // afterJob runs before the terminal state is written; with write-behind, completion is only
+        // announced once that write has gone through
+        if (writeBehindJobRepository != null) {
+            writeBehindJobRepository.afterTerminalWrite(jobExecution, failure -> {
+                if (failure != null) {
+                    // Still settled everywhere it is tracked, as UNKNOWN: the repository holds an earlier state
+                    log.error("Terminal state of execution {} could not be written", jobExecution.getId(), failure);
+                    jobExecution.setStatus(BatchStatus.UNKNOWN);
+                    jobExecution.setExitStatus(ExitStatus.UNKNOWN.addExitDescription(
+                            "Terminal state could not be written: " + failure.getMessage()));
+                }
+                announceFinished(jobExecution);
+            });
+        } else {
+            announceFinished(jobExecution);
+        }
+    }
+
+    private void announceFinished(JobExecution jobExecution) {
         if (jobService != null) {
             jobService.processJobExecutionUpdate(jobExecution);
         }
+        if (executionStopService != null) {
+            executionStopService.executionFinished(jobExecution);
+        }
+        if (clusterCoordinator != null) {
+            clusterCoordinator.executionFinished(jobExecution);
+        }
+        // Launches the jobs of a workflow that were waiting on this one
+        workflowService.executionFinished(jobExecution);
     }
 } 
\ No newline at end of file
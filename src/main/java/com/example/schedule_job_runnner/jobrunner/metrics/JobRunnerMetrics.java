@@ -0,0 +1,138 @@
+package com.example.schedule_job_runnner.jobrunner.metrics;
+
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchExecutor;
+import com.example.schedule_job_runnner.jobrunner.service.JobService;
+import com.example.schedule_job_runnner.jobrunner.service.LiveExecutionIndex;
+import com.example.schedule_job_runnner.jobrunner.stream.ExecutionUpdateHub;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Job runner metrics, published under {@code jobrunner.*}.
+ * <p>
+ * Gauges and counters read state the executor, live index and stream hub already keep, so they cost
+ * nothing until scraped. Timers are resolved once per job name (and exit status) and cached, so
+ * recording on the listener path is a map lookup plus a histogram update.
+ */
+@Component
+public class JobRunnerMetrics {
+
+    private static final Duration HISTOGRAM_MIN = Duration.ofMillis(1);
+    private static final Duration HISTOGRAM_MAX = Duration.ofHours(1);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> startDelayTimers = new ConcurrentHashMap<>();
+    // Job name -> exit code -> timer
+    private final Map<String, Map<String, Timer>> durationTimers = new ConcurrentHashMap<>();
+
+    public JobRunnerMetrics(MeterRegistry meterRegistry, LiveExecutionIndex liveExecutions,
+                            @Qualifier("asyncTaskExecutor") JobLaunchExecutor launchExecutor,
+                            ExecutionUpdateHub executionUpdateHub, JobService jobService) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("jobrunner.executions.live", liveExecutions, LiveExecutionIndex::size)
+                .description("Executions currently starting, running or stopping")
+                .register(meterRegistry);
+        Gauge.builder("jobrunner.launch.running", launchExecutor, JobLaunchExecutor::getRunningCount)
+                .description("Executions holding a launch executor slot")
+                .register(meterRegistry);
+        Gauge.builder("jobrunner.launch.queued", launchExecutor, JobLaunchExecutor::getQueuedCount)
+                .description("Admitted launches waiting for a launch executor slot")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.launch.rejected", launchExecutor, JobLaunchExecutor::getRejectedCount)
+                .description("Launches turned away because the launch queue was full")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("jobrunner.launch.idempotency", jobService, JobService::getIdempotencyHitCount)
+                .description("Launches with an idempotency key, by where the key was resolved")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.launch.idempotency", jobService, JobService::getIdempotencyMissCount)
+                .description("Launches with an idempotency key, by where the key was resolved")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.launch.idempotency", jobService, JobService::getIdempotencyRepositoryHitCount)
+                .description("Launches with an idempotency key, by where the key was resolved")
+                .tag("result", "repository")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.launch.bulk.batch.errors", jobService, JobService::getBulkBatchFallbackCount)
+                .description("Bulk launch chunks whose batched insert did not go through")
+                .tag("result", "fallback")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.launch.bulk.batch.errors", jobService, JobService::getBulkBatchFailureCount)
+                .description("Bulk launch chunks whose batched insert did not go through")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("jobrunner.launch.idempotency.keys", jobService, JobService::getIdempotencyKeyCount)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+
+        Gauge.builder("jobrunner.stream.subscribers", executionUpdateHub, ExecutionUpdateHub::getSubscriberCount)
+                .description("Connected execution stream clients")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.stream.events.delivered", executionUpdateHub, ExecutionUpdateHub::getDeliveredEventCount)
+                .description("Execution updates sent to stream clients")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.stream.events.dropped", executionUpdateHub, ExecutionUpdateHub::getDroppedEventCount)
+                .description("Execution updates discarded because a client's buffer was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("jobrunner.stream.disconnects", executionUpdateHub, ExecutionUpdateHub::getOverflowDisconnectCount)
+                .description("Stream clients disconnected on buffer overflow")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records how long the execution waited between being created by the launcher and starting to run.
+     */
+    public void recordStarted(JobExecution jobExecution) {
+        Duration delay = between(jobExecution.getCreateTime(), jobExecution.getStartTime());
+        if (delay != null) {
+            String jobName = jobExecution.getJobInstance().getJobName();
+            startDelayTimers.computeIfAbsent(jobName, name -> Timer.builder("jobrunner.launch.start.delay")
+                            .description("Time from launch to the execution starting to run")
+                            .tag("job", name)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(HISTOGRAM_MIN)
+                            .maximumExpectedValue(HISTOGRAM_MAX)
+                            .register(meterRegistry))
+                    .record(delay);
+        }
+    }
+
+    public void recordFinished(JobExecution jobExecution) {
+        Duration duration = between(jobExecution.getStartTime(), jobExecution.getEndTime() != null
+                ? jobExecution.getEndTime() : LocalDateTime.now());
+        if (duration != null) {
+            String jobName = jobExecution.getJobInstance().getJobName();
+            String exitCode = jobExecution.getExitStatus().getExitCode();
+            durationTimers.computeIfAbsent(jobName, name -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(exitCode, code -> Timer.builder("jobrunner.execution.duration")
+                            .description("Execution run time by job and exit status")
+                            .tag("job", jobName)
+                            .tag("status", code)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(HISTOGRAM_MIN)
+                            .maximumExpectedValue(HISTOGRAM_MAX)
+                            .register(meterRegistry))
+                    .record(duration);
+        }
+    }
+
+    private static Duration between(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            return null;
+        }
+        Duration duration = Duration.between(from, to);
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.schedule_job_runnner.jobrunner.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes each chunk to a file with a single channel write: the lines are encoded into one buffer that
+ * is reused between chunks. Not restartable. An existing file is only truncated and rewritten when
+ * {@code overwrite} is set, otherwise opening it fails.
+ */
+public class BatchingFileWriter implements ItemStreamWriter<String> {
+
+    private static final byte NEWLINE = '\n';
+
+    private final Path path;
+    private final boolean overwrite;
+    private final Counter recordsWritten;
+    private FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    public BatchingFileWriter(Path path, boolean overwrite, Counter recordsWritten) {
+        this.path = path;
+        this.overwrite = overwrite;
+        this.recordsWritten = recordsWritten;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        try {
+            channel = overwrite
+                    ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                    : FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+            throw new ItemStreamException("Output file " + path + " already exists and overwriteOutput is not set", e);
+        } catch (IOException e) {
+            throw new ItemStreamException("Cannot open output file " + path, e);
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends String> chunk) throws IOException {
+        buffer.clear();
+        for (String line : chunk) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(bytes.length + 1);
+            buffer.put(bytes).put(NEWLINE);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        recordsWritten.increment(chunk.size());
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Cannot close output file " + path, e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (buffer.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+}
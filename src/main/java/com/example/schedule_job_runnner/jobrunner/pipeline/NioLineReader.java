@@ -0,0 +1,178 @@
+package com.example.schedule_job_runnner.jobrunner.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a UTF-8 file line by line through a {@link FileChannel} on its own thread.
+ * <p>
+ * The reader thread fills blocks of {@code blockSize} lines into a queue holding at most
+ * {@code pipelineDepth} blocks, so reading runs ahead of processing and writing by that much and
+ * then waits. {@link #read()} hands the lines out one by one on the step thread. Not restartable.
+ */
+@Slf4j
+public class NioLineReader implements ItemStreamReader<String> {
+
+    private static final List<String> END_OF_FILE = List.of();
+
+    private final Path path;
+    private final int blockSize;
+    private final int readBufferBytes;
+    private final Counter recordsRead;
+    private final BlockingQueue<List<String>> blocks;
+
+    private Thread readerThread;
+    private volatile Throwable readFailure;
+    private List<String> currentBlock = List.of();
+    private int positionInBlock;
+    private boolean exhausted;
+
+    public NioLineReader(Path path, int blockSize, int pipelineDepth, int readBufferBytes, Counter recordsRead) {
+        this.path = path;
+        this.blockSize = Math.max(1, blockSize);
+        this.readBufferBytes = Math.max(1024, readBufferBytes);
+        this.recordsRead = recordsRead;
+        this.blocks = new ArrayBlockingQueue<>(Math.max(1, pipelineDepth));
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (!path.toFile().canRead()) {
+            throw new ItemStreamException("Input file " + path + " does not exist or is not readable");
+        }
+        readerThread = Thread.ofPlatform().name("pipeline-reader-" + path.getFileName()).daemon().start(this::readFile);
+    }
+
+    @Override
+    public String read() throws Exception {
+        while (positionInBlock >= currentBlock.size()) {
+            if (exhausted) {
+                return null;
+            }
+            List<String> next = blocks.take();
+            if (next == END_OF_FILE) {
+                exhausted = true;
+                if (readFailure != null) {
+                    throw new ItemStreamException("Failed to read " + path, readFailure);
+                }
+                return null;
+            }
+            currentBlock = next;
+            positionInBlock = 0;
+        }
+        return currentBlock.get(positionInBlock++);
+    }
+
+    @Override
+    public void close() {
+        if (readerThread != null) {
+            readerThread.interrupt();
+            readerThread = null;
+        }
+        blocks.clear();
+    }
+
+    private void readFile() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(readBufferBytes);
+            byte[] chunk = new byte[readBufferBytes];
+            // Bytes of a line that continues into the next buffer
+            byte[] partial = new byte[256];
+            int partialLength = 0;
+            List<String> block = new ArrayList<>(blockSize);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                int length = buffer.remaining();
+                buffer.get(chunk, 0, length);
+                buffer.clear();
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (chunk[i] != '\n') {
+                        continue;
+                    }
+                    String line;
+                    if (partialLength > 0) {
+                        partial = append(partial, partialLength, chunk, lineStart, i - lineStart);
+                        line = decode(partial, partialLength + i - lineStart);
+                        partialLength = 0;
+                    } else {
+                        line = decode(chunk, lineStart, i - lineStart);
+                    }
+                    lineStart = i + 1;
+                    block.add(line);
+                    if (block.size() == blockSize) {
+                        publish(block);
+                        block = new ArrayList<>(blockSize);
+                    }
+                }
+                if (lineStart < length) {
+                    partial = append(partial, partialLength, chunk, lineStart, length - lineStart);
+                    partialLength += length - lineStart;
+                }
+            }
+            if (partialLength > 0) {
+                block.add(decode(partial, partialLength));
+            }
+            if (!block.isEmpty()) {
+                publish(block);
+            }
+        } catch (InterruptedException e) {
+            // Closed before the end of the file
+            Thread.currentThread().interrupt();
+            return;
+        } catch (AsynchronousCloseException e) {
+            // Includes ClosedByInterruptException: close() interrupted a read, the step has ended or is stopping
+            log.debug("Reading {} ended by close", path);
+            return;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to read {}", path, e);
+            readFailure = e;
+        }
+        try {
+            blocks.put(END_OF_FILE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(List<String> block) throws InterruptedException {
+        blocks.put(block);
+        recordsRead.increment(block.size());
+    }
+
+    private static byte[] append(byte[] target, int targetLength, byte[] source, int offset, int length) {
+        if (targetLength + length > target.length) {
+            target = Arrays.copyOf(target, Math.max(target.length * 2, targetLength + length));
+        }
+        System.arraycopy(source, offset, target, targetLength, length);
+        return target;
+    }
+
+    private static String decode(byte[] bytes, int length) {
+        return decode(bytes, 0, length);
+    }
+
+    // Lines may end with \r\n
+    private static String decode(byte[] bytes, int offset, int length) {
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+}
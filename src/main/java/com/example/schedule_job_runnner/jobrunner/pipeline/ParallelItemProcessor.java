@@ -0,0 +1,35 @@
+package com.example.schedule_job_runnner.jobrunner.pipeline;
+
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Hands each item to the delegate on a worker pool and returns at once, so items are processed in
+ * parallel while the step keeps reading the rest of the chunk. Pair it with {@link PipelinedItemWriter}.
+ */
+public class ParallelItemProcessor<I, O> implements ItemProcessor<I, Future<O>> {
+
+    private final ItemProcessor<I, O> delegate;
+    private final TaskExecutor taskExecutor;
+
+    public ParallelItemProcessor(ItemProcessor<I, O> delegate, TaskExecutor taskExecutor) {
+        this.delegate = delegate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public Future<O> process(I item) {
+        CompletableFuture<O> result = new CompletableFuture<>();
+        taskExecutor.execute(() -> {
+            try {
+                result.complete(delegate.process(item));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.schedule_job_runnner.jobrunner.pipeline;
+
+import com.example.schedule_job_runnner.jobrunner.config.PipelineProperties;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+/**
+ * Resolves the {@code inputFile} and {@code outputFile} job parameters against
+ * {@code jobrunner.pipeline.base-directory}.
+ * <p>
+ * The names come from launch requests, so a name that leads out of the base directory, through
+ * {@code ..}, an absolute path or a symbolic link, is rejected, and an existing output file is only
+ * replaced when the launch sets {@code overwriteOutput=true}. As the job's parameters validator it turns
+ * such launches away before an execution is created.
+ */
+@Component
+public class PipelineFiles implements JobParametersValidator {
+
+    public static final String INPUT_FILE_PARAMETER = "inputFile";
+    public static final String OUTPUT_FILE_PARAMETER = "outputFile";
+    public static final String OVERWRITE_OUTPUT_PARAMETER = "overwriteOutput";
+
+    private final PipelineProperties properties;
+
+    public PipelineFiles(PipelineProperties properties) {
+        this.properties = properties;
+    }
+
+    public Path input(String inputFile) {
+        return resolve(inputFile);
+    }
+
+    // Defaults to <inputFile>.out
+    public Path output(String inputFile, String outputFile) {
+        return resolve(outputFile != null ? outputFile : inputFile + ".out");
+    }
+
+    public static boolean overwrite(String overwriteOutput) {
+        return Boolean.parseBoolean(overwriteOutput);
+    }
+
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        String inputFile = parameters == null ? null : parameters.getString(INPUT_FILE_PARAMETER);
+        if (inputFile == null) {
+            throw new JobParametersInvalidException("The JobParameters do not contain required keys: [" + INPUT_FILE_PARAMETER + "]");
+        }
+        try {
+            Path input = input(inputFile);
+            if (!Files.isReadable(input)) {
+                throw new JobParametersInvalidException("Input file " + inputFile + " does not exist or is not readable");
+            }
+            Path output = output(inputFile, parameters.getString(OUTPUT_FILE_PARAMETER));
+            if (output.equals(input)) {
+                throw new JobParametersInvalidException("Output file must differ from the input file");
+            }
+            if (Files.exists(output, LinkOption.NOFOLLOW_LINKS) && !overwrite(parameters.getString(OVERWRITE_OUTPUT_PARAMETER))) {
+                throw new JobParametersInvalidException("Output file " + output.getFileName()
+                        + " already exists, set " + OVERWRITE_OUTPUT_PARAMETER + "=true to replace it");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new JobParametersInvalidException(e.getMessage());
+        }
+    }
+
+    private Path resolve(String file) {
+        if (file == null || file.isBlank()) {
+            throw new IllegalArgumentException("File name is empty");
+        }
+        Path base;
+        try {
+            base = Path.of(properties.getBaseDirectory()).toRealPath();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Pipeline base directory " + properties.getBaseDirectory() + " does not exist");
+        }
+        Path resolved = base.resolve(file).normalize();
+        if (!resolved.startsWith(base)) {
+            throw new IllegalArgumentException(file + " is outside the pipeline base directory");
+        }
+        // A symbolic link inside the base directory may still point out of it; check the deepest existing
+        // part of the path, the link itself if it dangles
+        Path existing = resolved;
+        while (!Files.exists(existing, LinkOption.NOFOLLOW_LINKS)) {
+            existing = existing.getParent();
+        }
+        try {
+            if (!existing.toRealPath().startsWith(base)) {
+                throw new IllegalArgumentException(file + " is outside the pipeline base directory");
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot resolve " + file + ": " + e.getMessage());
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.schedule_job_runnner.jobrunner.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Pipeline meters: {@code jobrunner.pipeline.records} counts records per stage (read, written) as they
+ * flow, so its rate is the live records per second, and {@code jobrunner.pipeline.throughput} records
+ * the average records per second the write stage of every finished step has written.
+ */
+@Slf4j
+@Component
+public class PipelineMetrics {
+
+    private final Counter recordsRead;
+    private final Counter recordsWritten;
+    private final DistributionSummary throughput;
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.recordsRead = Counter.builder("jobrunner.pipeline.records")
+                .description("Records passing through the file processing pipeline")
+                .tag("stage", "read")
+                .register(meterRegistry);
+        this.recordsWritten = Counter.builder("jobrunner.pipeline.records")
+                .description("Records passing through the file processing pipeline")
+                .tag("stage", "written")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("jobrunner.pipeline.throughput")
+                .description("Average records written per second by a pipeline step")
+                .baseUnit("records/s")
+                .register(meterRegistry);
+    }
+
+    public Counter getRecordsRead() {
+        return recordsRead;
+    }
+
+    public Counter getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    /**
+     * Called by {@link PipelinedItemWriter} once the step's records are written. The step's own write
+     * count is the number of chunks' results handed to the write stage, not what reached the file.
+     */
+    public void recordStep(StepExecution stepExecution, long recordsWritten) {
+        LocalDateTime start = stepExecution.getStartTime();
+        if (start != null) {
+            double seconds = Math.max(0.001, Duration.between(start, LocalDateTime.now()).toNanos() / 1e9);
+            double recordsPerSecond = recordsWritten / seconds;
+            throughput.record(recordsPerSecond);
+            log.info("Pipeline step '{}' (execution ID: {}) read {} and wrote {} records in {}s ({} records/s)",
+                    stepExecution.getStepName(), stepExecution.getJobExecutionId(), stepExecution.getReadCount(),
+                    recordsWritten, String.format("%.2f", seconds), Math.round(recordsPerSecond));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.schedule_job_runnner.jobrunner.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Write stage of the file pipeline, on its own thread behind a bounded queue.
+ * <p>
+ * {@link #write} only queues the chunk's results of {@link ParallelItemProcessor}, so the step thread goes
+ * on reading and processing the next chunk; it waits only when {@code queueDepth} chunks are already
+ * queued. The writer thread waits for each result in chunk order and writes the chunk with the delegate.
+ * Results the processor filtered out (null) are dropped.
+ * <p>
+ * A chunk counts as committed once queued, so a write failure is reported by the next {@link #write}
+ * and, at the latest, by {@link #afterStep}, which waits for the queue to drain, fails the step if a
+ * write failed and reports the records actually written to {@link PipelineMetrics}. Not restartable.
+ */
+@Slf4j
+public class PipelinedItemWriter<T> implements ItemStreamWriter<Future<T>>, StepExecutionListener {
+
+    private static final List<Future<?>> END_OF_STEP = List.of();
+
+    private final ItemWriter<T> delegate;
+    private final PipelineMetrics pipelineMetrics;
+    private final BlockingQueue<List<? extends Future<?>>> chunks;
+
+    private Thread writerThread;
+    private boolean stepEnded;
+    private volatile Throwable writeFailure;
+    private volatile long recordsWritten;
+
+    public PipelinedItemWriter(ItemWriter<T> delegate, int queueDepth, PipelineMetrics pipelineMetrics) {
+        this.delegate = delegate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.chunks = new ArrayBlockingQueue<>(Math.max(1, queueDepth));
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (delegate instanceof ItemStream stream) {
+            stream.open(executionContext);
+        }
+        writerThread = Thread.ofPlatform().name("pipeline-writer").daemon().start(this::writeChunks);
+    }
+
+    @Override
+    public void write(Chunk<? extends Future<T>> chunk) throws Exception {
+        throwIfFailed();
+        // The step reuses its chunk, queue a copy
+        chunks.put(new ArrayList<>(chunk.getItems()));
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (delegate instanceof ItemStream stream) {
+            stream.update(executionContext);
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepEnded) {
+            return null;
+        }
+        stepEnded = true;
+        if (writerThread != null) {
+            try {
+                chunks.put(END_OF_STEP);
+                writerThread.join();
+            } catch (InterruptedException e) {
+                writerThread.interrupt();
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+        }
+        pipelineMetrics.recordStep(stepExecution, recordsWritten);
+        Throwable failure = writeFailure;
+        if (failure == null) {
+            return null;
+        }
+        stepExecution.upgradeStatus(BatchStatus.FAILED);
+        stepExecution.addFailureException(failure);
+        return ExitStatus.FAILED.addExitDescription(failure);
+    }
+
+    @Override
+    public void close() {
+        // Only still running if the step ended without calling afterStep
+        if (writerThread != null) {
+            writerThread.interrupt();
+            writerThread = null;
+        }
+        chunks.clear();
+        if (delegate instanceof ItemStream stream) {
+            stream.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeChunks() {
+        try {
+            for (;;) {
+                List<? extends Future<?>> futures = chunks.take();
+                if (futures == END_OF_STEP) {
+                    return;
+                }
+                if (writeFailure != null) {
+                    // Keep draining so the step thread never waits on a full queue
+                    continue;
+                }
+                try {
+                    Chunk<T> results = new Chunk<>();
+                    for (Future<?> future : futures) {
+                        T result = (T) future.get();
+                        if (result != null) {
+                            results.add(result);
+                        }
+                    }
+                    if (!results.isEmpty()) {
+                        delegate.write(results);
+                        recordsWritten += results.size();
+                    }
+                } catch (ExecutionException e) {
+                    writeFailure = e.getCause() != null ? e.getCause() : e;
+                    log.error("Pipeline record failed", writeFailure);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    writeFailure = e;
+                    log.error("Pipeline write failed", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed before the end of the step
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void throwIfFailed() throws Exception {
+        Throwable failure = writeFailure;
+        if (failure instanceof Exception e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw new ItemStreamException("Pipeline write failed", failure);
+        }
+    }
+}
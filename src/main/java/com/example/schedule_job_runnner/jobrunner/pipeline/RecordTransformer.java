@@ -0,0 +1,30 @@
+package com.example.schedule_job_runnner.jobrunner.pipeline;
+
+import org.springframework.batch.item.ItemProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Stand-in for real record processing: trims the line, skips blank and {@code #} comment lines, and
+ * appends the field count and a CRC32C checksum of the record.
+ */
+public class RecordTransformer implements ItemProcessor<String, String> {
+
+    @Override
+    public String process(String line) {
+        String record = line.strip();
+        if (record.isEmpty() || record.charAt(0) == '#') {
+            return null;
+        }
+        int fields = 1;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == ',') {
+                fields++;
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return record + ',' + fields + ',' + Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.schedule_job_runnner.jobrunner.repository;
+
+import com.example.schedule_job_runnner.jobrunner.dto.ClusterLaunchDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.ClusterNodeDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.converter.DefaultJobParametersConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Launch queue and node registry shared by all instances of a cluster, kept next to the job repository.
+ * <p>
+ * A launch row moves PENDING → CLAIMED → RUNNING → final batch status. Every change of ownership is
+ * an optimistic update on the row's VERSION, so when several nodes race for the same row exactly one
+ * update matches and the others move on; no row locks are held between statements. A claimed or
+ * running row carries a lease that its owner renews with its heartbeat, and rows whose lease ran out
+ * can be taken over by any other node.
+ * <p>
+ * The SQL is H2's ({@code MERGE ... KEY}, {@code LIMIT}), matching the file database the cluster
+ * profile shares through {@code AUTO_SERVER}; another database needs these statements ported.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(prefix = "jobrunner.cluster", name = "enabled", havingValue = "true")
+public class ClusterLaunchRepository {
+
+    public static final String PENDING = "PENDING";
+    public static final String CLAIMED = "CLAIMED";
+    public static final String RUNNING = "RUNNING";
+    public static final String FAILED = "FAILED";
+
+    /**
+     * A queue row as needed to claim, launch or recover it.
+     */
+    public record QueuedLaunch(long id, int version, String jobName, JobParameters parameters,
+                               String ownerNode, Long jobExecutionId) {
+    }
+
+    private static final String COLUMNS = "ID, JOB_NAME, JOB_PARAMETERS, PRIORITY, STATUS, OWNER_NODE, LEASE_UNTIL, "
+            + "JOB_EXECUTION_ID, ATTEMPTS, VERSION, MESSAGE, CREATED_AT";
+    private static final int MAX_MESSAGE_LENGTH = 2500;
+
+    private final JdbcTemplate jdbcTemplate;
+    // Same string form the job repository uses for parameter values, including their types
+    private final DefaultJobParametersConverter parametersConverter = new DefaultJobParametersConverter();
+
+    public ClusterLaunchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the cluster tables unless another node already did.
+     */
+    public void createTablesIfMissing() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS JOBRUNNER_LAUNCH_QUEUE ("
+                + "ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "JOB_NAME VARCHAR(100) NOT NULL, "
+                + "JOB_PARAMETERS CLOB NOT NULL, "
+                + "PRIORITY INT NOT NULL, "
+                + "STATUS VARCHAR(20) NOT NULL, "
+                + "OWNER_NODE VARCHAR(100), "
+                + "LEASE_UNTIL BIGINT, "
+                + "JOB_EXECUTION_ID BIGINT, "
+                + "ATTEMPTS INT DEFAULT 0 NOT NULL, "
+                + "VERSION INT DEFAULT 0 NOT NULL, "
+                + "MESSAGE VARCHAR(2500), "
+                + "CREATED_AT BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS JOBRUNNER_LAUNCH_QUEUE_STATUS_IDX "
+                + "ON JOBRUNNER_LAUNCH_QUEUE (STATUS, PRIORITY, ID)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS JOBRUNNER_NODE ("
+                + "NODE_ID VARCHAR(100) PRIMARY KEY, "
+                + "STARTED_AT BIGINT NOT NULL, "
+                + "HEARTBEAT_AT BIGINT NOT NULL)");
+    }
+
+    public long enqueue(String jobName, JobParameters parameters, int priority) {
+        String serialized = serialize(parameters);
+        long now = System.currentTimeMillis();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO JOBRUNNER_LAUNCH_QUEUE "
+                    + "(JOB_NAME, JOB_PARAMETERS, PRIORITY, STATUS, CREATED_AT) VALUES (?, ?, ?, ?, ?)", new String[]{"ID"});
+            ps.setString(1, jobName);
+            ps.setString(2, serialized);
+            ps.setInt(3, priority);
+            ps.setString(4, PENDING);
+            ps.setLong(5, now);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * Oldest pending launches of the highest priority first.
+     */
+    public List<QueuedLaunch> findPending(int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM JOBRUNNER_LAUNCH_QUEUE WHERE STATUS = ? "
+                + "ORDER BY PRIORITY DESC, ID LIMIT ?", this::mapQueuedLaunch, PENDING, limit);
+    }
+
+    /**
+     * Claimed or running launches whose owner has not renewed the lease in time.
+     */
+    public List<QueuedLaunch> findExpired(long now, int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM JOBRUNNER_LAUNCH_QUEUE WHERE STATUS IN (?, ?) "
+                + "AND LEASE_UNTIL < ? ORDER BY ID LIMIT ?", this::mapQueuedLaunch, CLAIMED, RUNNING, now, limit);
+    }
+
+    /**
+     * Takes a pending launch for the node; false if another node changed the row first.
+     */
+    public boolean claim(QueuedLaunch launch, String nodeId, long leaseUntil) {
+        return jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET STATUS = ?, OWNER_NODE = ?, LEASE_UNTIL = ?, "
+                        + "VERSION = VERSION + 1 WHERE ID = ? AND VERSION = ? AND STATUS = ?",
+                CLAIMED, nodeId, leaseUntil, launch.id(), launch.version(), PENDING) == 1;
+    }
+
+    /**
+     * Takes over a launch whose lease expired; false if its owner renewed it or another node took it first.
+     */
+    public boolean takeOver(QueuedLaunch launch, String nodeId, long leaseUntil, long now) {
+        return jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET OWNER_NODE = ?, LEASE_UNTIL = ?, "
+                        + "VERSION = VERSION + 1 WHERE ID = ? AND VERSION = ? AND LEASE_UNTIL < ?",
+                nodeId, leaseUntil, launch.id(), launch.version(), now) == 1;
+    }
+
+    /**
+     * Records the execution started for a claimed launch, unless the execution already finished or the
+     * row changed since the node wrote {@code version}.
+     */
+    public boolean markRunning(long id, String nodeId, int version, long jobExecutionId) {
+        return jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET STATUS = ?, JOB_EXECUTION_ID = ?, VERSION = VERSION + 1 "
+                        + "WHERE ID = ? AND OWNER_NODE = ? AND VERSION = ? AND STATUS = ?",
+                RUNNING, jobExecutionId, id, nodeId, version, CLAIMED) == 1;
+    }
+
+    /**
+     * Records the final status of the launch's execution and drops its lease; false if the row changed
+     * since the node wrote {@code version}, i.e. it was taken over.
+     */
+    public boolean finish(long id, String nodeId, int version, long jobExecutionId, String status) {
+        return jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET STATUS = ?, JOB_EXECUTION_ID = ?, LEASE_UNTIL = NULL, "
+                        + "VERSION = VERSION + 1 WHERE ID = ? AND OWNER_NODE = ? AND VERSION = ?",
+                status, jobExecutionId, id, nodeId, version) == 1;
+    }
+
+    /**
+     * Versions of the claimed and running rows the node owns, by launch id.
+     */
+    public Map<Long, Integer> findOwnedVersions(String nodeId) {
+        Map<Long, Integer> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT ID, VERSION FROM JOBRUNNER_LAUNCH_QUEUE WHERE OWNER_NODE = ? AND STATUS IN (?, ?)",
+                (ResultSet rs) -> {
+                    versions.put(rs.getLong("ID"), rs.getInt("VERSION"));
+                }, nodeId, CLAIMED, RUNNING);
+        return versions;
+    }
+
+    /**
+     * Gives a claimed launch back to the queue without counting an attempt, e.g. when the node turned out to be full.
+     */
+    public void release(long id, String nodeId, String message) {
+        jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET STATUS = ?, OWNER_NODE = NULL, LEASE_UNTIL = NULL, "
+                        + "MESSAGE = ?, VERSION = VERSION + 1 WHERE ID = ? AND OWNER_NODE = ? AND STATUS = ?",
+                PENDING, truncate(message), id, nodeId, CLAIMED);
+    }
+
+    public void fail(long id, String nodeId, String message) {
+        jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET STATUS = ?, LEASE_UNTIL = NULL, MESSAGE = ?, "
+                + "VERSION = VERSION + 1 WHERE ID = ? AND OWNER_NODE = ?", FAILED, truncate(message), id, nodeId);
+    }
+
+    /**
+     * Puts a recovered launch back in the queue, or marks it FAILED once it has used up its attempts.
+     */
+    public void requeue(long id, String nodeId, int maxAttempts, String message) {
+        jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET STATUS = CASE WHEN ATTEMPTS + 1 >= ? THEN ? ELSE ? END, "
+                        + "ATTEMPTS = ATTEMPTS + 1, OWNER_NODE = NULL, LEASE_UNTIL = NULL, JOB_EXECUTION_ID = NULL, "
+                        + "MESSAGE = ?, VERSION = VERSION + 1 WHERE ID = ? AND OWNER_NODE = ?",
+                maxAttempts, FAILED, PENDING, truncate(message), id, nodeId);
+    }
+
+    /**
+     * Gives launches claimed but not yet started by a node that is shutting down back to the queue.
+     */
+    public int releaseClaimed(String nodeId) {
+        return jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET STATUS = ?, OWNER_NODE = NULL, LEASE_UNTIL = NULL, "
+                + "VERSION = VERSION + 1 WHERE OWNER_NODE = ? AND STATUS = ?", PENDING, nodeId, CLAIMED);
+    }
+
+    /**
+     * Extends the lease of everything the node owns; the version is left alone so a racing takeover of
+     * an already expired lease still fails or succeeds as a whole.
+     */
+    public int renewLeases(String nodeId, long leaseUntil) {
+        return jdbcTemplate.update("UPDATE JOBRUNNER_LAUNCH_QUEUE SET LEASE_UNTIL = ? WHERE OWNER_NODE = ? AND STATUS IN (?, ?)",
+                leaseUntil, nodeId, CLAIMED, RUNNING);
+    }
+
+    public ClusterLaunchDTO findLaunch(long id) {
+        List<ClusterLaunchDTO> launches = jdbcTemplate.query("SELECT " + COLUMNS + " FROM JOBRUNNER_LAUNCH_QUEUE WHERE ID = ?",
+                this::mapLaunchDTO, id);
+        return launches.isEmpty() ? null : launches.get(0);
+    }
+
+    public List<ClusterLaunchDTO> findLaunches(String status, int limit) {
+        if (status == null) {
+            return jdbcTemplate.query("SELECT " + COLUMNS + " FROM JOBRUNNER_LAUNCH_QUEUE ORDER BY ID DESC LIMIT ?",
+                    this::mapLaunchDTO, limit);
+        }
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM JOBRUNNER_LAUNCH_QUEUE WHERE STATUS = ? ORDER BY ID DESC LIMIT ?",
+                this::mapLaunchDTO, status, limit);
+    }
+
+    // H2 upsert; also brings back the row of a node that was removed as dead while it was paused
+    public void heartbeat(String nodeId, long startedAt, long now) {
+        jdbcTemplate.update("MERGE INTO JOBRUNNER_NODE (NODE_ID, STARTED_AT, HEARTBEAT_AT) KEY (NODE_ID) VALUES (?, ?, ?)",
+                nodeId, startedAt, now);
+    }
+
+    public void removeNode(String nodeId) {
+        jdbcTemplate.update("DELETE FROM JOBRUNNER_NODE WHERE NODE_ID = ?", nodeId);
+    }
+
+    public int removeNodesSilentSince(long heartbeatBefore) {
+        return jdbcTemplate.update("DELETE FROM JOBRUNNER_NODE WHERE HEARTBEAT_AT < ?", heartbeatBefore);
+    }
+
+    public List<ClusterNodeDTO> findNodes(String selfNodeId, long aliveSince) {
+        return jdbcTemplate.query("SELECT NODE_ID, STARTED_AT, HEARTBEAT_AT FROM JOBRUNNER_NODE ORDER BY NODE_ID",
+                (rs, rowNum) -> {
+                    String nodeId = rs.getString("NODE_ID");
+                    long heartbeatAt = rs.getLong("HEARTBEAT_AT");
+                    return ClusterNodeDTO.builder()
+                            .nodeId(nodeId)
+                            .startedAt(rs.getLong("STARTED_AT"))
+                            .heartbeatAt(heartbeatAt)
+                            .alive(heartbeatAt >= aliveSince)
+                            .self(nodeId.equals(selfNodeId))
+                            .build();
+                });
+    }
+
+    private QueuedLaunch mapQueuedLaunch(ResultSet rs, int rowNum) throws SQLException {
+        return new QueuedLaunch(
+                rs.getLong("ID"),
+                rs.getInt("VERSION"),
+                rs.getString("JOB_NAME"),
+                deserialize(rs.getString("JOB_PARAMETERS")),
+                rs.getString("OWNER_NODE"),
+                getNullableLong(rs, "JOB_EXECUTION_ID"));
+    }
+
+    private ClusterLaunchDTO mapLaunchDTO(ResultSet rs, int rowNum) throws SQLException {
+        return ClusterLaunchDTO.builder()
+                .id(rs.getLong("ID"))
+                .jobName(rs.getString("JOB_NAME"))
+                .status(rs.getString("STATUS"))
+                .priority(rs.getInt("PRIORITY"))
+                .ownerNode(rs.getString("OWNER_NODE"))
+                .leaseUntil(getNullableLong(rs, "LEASE_UNTIL"))
+                .jobExecutionId(getNullableLong(rs, "JOB_EXECUTION_ID"))
+                .attempts(rs.getInt("ATTEMPTS"))
+                .message(rs.getString("MESSAGE"))
+                .createdAt(rs.getLong("CREATED_AT"))
+                .build();
+    }
+
+    private static Long getNullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private String serialize(JobParameters parameters) {
+        StringWriter writer = new StringWriter();
+        try {
+            parametersConverter.getProperties(parameters).store(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    private JobParameters deserialize(String serialized) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(serialized));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return parametersConverter.getJobParameters(properties);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+}
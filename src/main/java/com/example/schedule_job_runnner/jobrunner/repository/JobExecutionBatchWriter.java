@@ -0,0 +1,164 @@
+package com.example.schedule_job_runnner.jobrunner.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.DefaultJobKeyGenerator;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.converter.DateToStringConverter;
+import org.springframework.batch.core.converter.LocalDateTimeToStringConverter;
+import org.springframework.batch.core.converter.LocalDateToStringConverter;
+import org.springframework.batch.core.converter.LocalTimeToStringConverter;
+import org.springframework.batch.core.repository.dao.DefaultExecutionContextSerializer;
+import org.springframework.batch.item.database.support.DefaultDataFieldMaxValueIncrementerFactory;
+import org.springframework.batch.support.DatabaseType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates job instances and their first execution for many launches at once.
+ * <p>
+ * Writes the same rows the JobRepository would (instance, execution, parameters and an empty execution
+ * context), and every table is written with a single batched statement, all in one transaction. Ids
+ * come from the same sequences the JobRepository uses: on H2 all ids of a sequence are fetched in one
+ * query, on other databases through Spring Batch's incrementers, one call per id. Unlike the JobRepository it does not look for an
+ * existing instance with the same identifying parameters; such a launch fails the whole batch on the
+ * instance unique key and the caller falls back to launching one by one.
+ */
+@Slf4j
+@Repository
+public class JobExecutionBatchWriter {
+
+    public record NewExecution(String jobName, JobParameters parameters) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String tablePrefix;
+    private final boolean h2;
+    private final DataFieldMaxValueIncrementer jobIncrementer;
+    private final DataFieldMaxValueIncrementer jobExecutionIncrementer;
+    private final DefaultJobKeyGenerator jobKeyGenerator = new DefaultJobKeyGenerator();
+    // Same conversions the JobRepository uses to store parameter values as strings
+    private final DefaultConversionService conversionService = new DefaultConversionService();
+    private final String emptyExecutionContext;
+
+    public JobExecutionBatchWriter(JdbcTemplate jdbcTemplate, DataSource dataSource, PlatformTransactionManager transactionManager,
+                                   @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tablePrefix = tablePrefix;
+        DatabaseType databaseType = DatabaseType.fromMetaData(dataSource);
+        this.h2 = databaseType == DatabaseType.H2;
+        DefaultDataFieldMaxValueIncrementerFactory incrementerFactory = new DefaultDataFieldMaxValueIncrementerFactory(dataSource);
+        this.jobIncrementer = incrementerFactory.getIncrementer(databaseType.name(), tablePrefix + "JOB_SEQ");
+        this.jobExecutionIncrementer = incrementerFactory.getIncrementer(databaseType.name(), tablePrefix + "JOB_EXECUTION_SEQ");
+        conversionService.addConverter(new DateToStringConverter());
+        conversionService.addConverter(new LocalDateToStringConverter());
+        conversionService.addConverter(new LocalTimeToStringConverter());
+        conversionService.addConverter(new LocalDateTimeToStringConverter());
+        this.emptyExecutionContext = serializeEmptyContext();
+    }
+
+    /**
+     * Persists one new instance and execution per entry and returns the executions, in the same order,
+     * in the STARTING state the JobRepository would have returned them in.
+     */
+    public List<JobExecution> createJobExecutions(List<NewExecution> launches) {
+        if (launches.isEmpty()) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> {
+            List<Long> instanceIds = nextValues("JOB_SEQ", jobIncrementer, launches.size());
+            List<Long> executionIds = nextValues("JOB_EXECUTION_SEQ", jobExecutionIncrementer, launches.size());
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp createTime = Timestamp.valueOf(now);
+
+            List<JobExecution> executions = new ArrayList<>(launches.size());
+            List<Object[]> instanceRows = new ArrayList<>(launches.size());
+            List<Object[]> executionRows = new ArrayList<>(launches.size());
+            List<Object[]> parameterRows = new ArrayList<>();
+            List<Object[]> contextRows = new ArrayList<>(launches.size());
+            for (int i = 0; i < launches.size(); i++) {
+                NewExecution launch = launches.get(i);
+                Long instanceId = instanceIds.get(i);
+                Long executionId = executionIds.get(i);
+
+                JobInstance instance = new JobInstance(instanceId, launch.jobName());
+                instance.setVersion(0);
+                JobExecution execution = new JobExecution(instance, executionId, launch.parameters());
+                execution.setVersion(0);
+                execution.setCreateTime(now);
+                execution.setLastUpdated(now);
+                executions.add(execution);
+
+                instanceRows.add(new Object[]{instanceId, 0, launch.jobName(), jobKeyGenerator.generateKey(launch.parameters())});
+                executionRows.add(new Object[]{executionId, 0, instanceId, createTime, BatchStatus.STARTING.name(),
+                        ExitStatus.UNKNOWN.getExitCode(), ExitStatus.UNKNOWN.getExitDescription(), createTime});
+                for (Map.Entry<String, JobParameter<?>> entry : launch.parameters().getParameters().entrySet()) {
+                    JobParameter<?> parameter = entry.getValue();
+                    parameterRows.add(new Object[]{executionId, entry.getKey(), parameter.getType().getName(),
+                            conversionService.convert(parameter.getValue(), String.class),
+                            parameter.isIdentifying() ? "Y" : "N"});
+                }
+                contextRows.add(new Object[]{executionId, emptyExecutionContext});
+            }
+
+            jdbcTemplate.batchUpdate("INSERT INTO " + tablePrefix + "JOB_INSTANCE (JOB_INSTANCE_ID, VERSION, JOB_NAME, JOB_KEY) "
+                    + "VALUES (?, ?, ?, ?)", instanceRows);
+            jdbcTemplate.batchUpdate("INSERT INTO " + tablePrefix + "JOB_EXECUTION (JOB_EXECUTION_ID, VERSION, JOB_INSTANCE_ID, "
+                    + "CREATE_TIME, STATUS, EXIT_CODE, EXIT_MESSAGE, LAST_UPDATED) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", executionRows);
+            jdbcTemplate.batchUpdate("INSERT INTO " + tablePrefix + "JOB_EXECUTION_PARAMS (JOB_EXECUTION_ID, PARAMETER_NAME, "
+                    + "PARAMETER_TYPE, PARAMETER_VALUE, IDENTIFYING) VALUES (?, ?, ?, ?, ?)", parameterRows);
+            jdbcTemplate.batchUpdate("INSERT INTO " + tablePrefix + "JOB_EXECUTION_CONTEXT (JOB_EXECUTION_ID, SHORT_CONTEXT) "
+                    + "VALUES (?, ?)", contextRows);
+            log.debug("Created {} job executions in one batch", executions.size());
+            return executions;
+        });
+    }
+
+    // Sequence names as in the Spring Batch schema (BATCH_JOB_SEQ, BATCH_JOB_EXECUTION_SEQ)
+    private List<Long> nextValues(String sequence, DataFieldMaxValueIncrementer incrementer, int count) {
+        if (h2) {
+            // H2 only syntax, one round trip for all ids
+            return jdbcTemplate.queryForList("SELECT NEXT VALUE FOR " + tablePrefix + sequence + " FROM SYSTEM_RANGE(1, ?)",
+                    Long.class, count);
+        }
+        List<Long> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(incrementer.nextLongValue());
+        }
+        return values;
+    }
+
+    private static String serializeEmptyContext() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            new DefaultExecutionContextSerializer().serialize(new HashMap<>(), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.schedule_job_runnner.jobrunner.repository;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads job execution history straight from the Spring Batch metadata tables.
+ * <p>
+ * One page costs two queries regardless of how much history exists: the executions are filtered,
+ * ordered and limited in SQL (newest first by execution id, with keyset pagination on that id), and
+ * the parameters for the whole page are fetched with a single IN query.
+ */
+@Slf4j
+@Repository
+public class JobExecutionHistoryRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String tablePrefix;
+
+    public JobExecutionHistoryRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                         @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tablePrefix = tablePrefix;
+    }
+
+    /**
+     * Returns up to {@code limit} executions of the job, newest first.
+     *
+     * @param statuses          only executions in one of these statuses, all when null or empty
+     * @param from              only executions created at or after this time, when not null
+     * @param to                only executions created before this time, when not null
+     * @param beforeExecutionId keyset cursor: only executions with a smaller id, when not null
+     */
+    public List<BatchJobExecutionInfoDTO> findExecutions(String jobName, Collection<BatchStatus> statuses,
+                                                         LocalDateTime from, LocalDateTime to,
+                                                         Long beforeExecutionId, int limit) {
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT E.JOB_EXECUTION_ID, E.JOB_INSTANCE_ID, I.JOB_NAME, E.STATUS, E.START_TIME, E.END_TIME, ")
+                .append("E.EXIT_CODE, E.EXIT_MESSAGE ")
+                .append("FROM ").append(tablePrefix).append("JOB_EXECUTION E ")
+                .append("JOIN ").append(tablePrefix).append("JOB_INSTANCE I ON E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID ")
+                .append("WHERE I.JOB_NAME = :jobName");
+        MapSqlParameterSource params = new MapSqlParameterSource("jobName", jobName);
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND E.STATUS IN (:statuses)");
+            params.addValue("statuses", statuses.stream().map(BatchStatus::name).toList());
+        }
+        if (from != null) {
+            sql.append(" AND E.CREATE_TIME >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND E.CREATE_TIME < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        if (beforeExecutionId != null) {
+            sql.append(" AND E.JOB_EXECUTION_ID < :cursor");
+            params.addValue("cursor", beforeExecutionId);
+        }
+        sql.append(" ORDER BY E.JOB_EXECUTION_ID DESC LIMIT :limit");
+        params.addValue("limit", limit);
+
+        List<BatchJobExecutionInfoDTO> executions = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> mapRow(rs));
+        attachJobParameters(executions);
+        return executions;
+    }
+
+    /**
+     * The newest execution of the job launched with the given string parameter value, or null.
+     */
+    public BatchJobExecutionInfoDTO findLatestExecutionByParameter(String jobName, String parameterName, String value) {
+        String sql = "SELECT E.JOB_EXECUTION_ID, E.JOB_INSTANCE_ID, I.JOB_NAME, E.STATUS, E.START_TIME, E.END_TIME, "
+                + "E.EXIT_CODE, E.EXIT_MESSAGE "
+                + "FROM " + tablePrefix + "JOB_EXECUTION_PARAMS P "
+                + "JOIN " + tablePrefix + "JOB_EXECUTION E ON P.JOB_EXECUTION_ID = E.JOB_EXECUTION_ID "
+                + "JOIN " + tablePrefix + "JOB_INSTANCE I ON E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID "
+                + "WHERE P.PARAMETER_NAME = :name AND P.PARAMETER_VALUE = :value AND I.JOB_NAME = :jobName "
+                + "ORDER BY E.JOB_EXECUTION_ID DESC LIMIT 1";
+        MapSqlParameterSource params = new MapSqlParameterSource("jobName", jobName)
+                .addValue("name", parameterName)
+                .addValue("value", value);
+        List<BatchJobExecutionInfoDTO> executions = jdbcTemplate.query(sql, params, (rs, rowNum) -> mapRow(rs));
+        attachJobParameters(executions);
+        return executions.isEmpty() ? null : executions.get(0);
+    }
+
+    /**
+     * Indexes parameters by name and value so {@link #findLatestExecutionByParameter} does not scan the
+     * parameters table. The Spring Batch schema only indexes them by execution.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createParameterIndexIfMissing() {
+        try {
+            jdbcTemplate.getJdbcTemplate().execute("CREATE INDEX IF NOT EXISTS " + tablePrefix + "JOB_EXEC_PARAMS_NAME_VALUE_IDX ON "
+                    + tablePrefix + "JOB_EXECUTION_PARAMS (PARAMETER_NAME, PARAMETER_VALUE)");
+        } catch (RuntimeException e) {
+            log.warn("Could not create the job parameter index: {}", e.getMessage());
+        }
+    }
+
+    private void attachJobParameters(List<BatchJobExecutionInfoDTO> executions) {
+        if (executions.isEmpty()) {
+            return;
+        }
+        Map<Long, BatchJobExecutionInfoDTO> byId = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(executions.size());
+        for (BatchJobExecutionInfoDTO execution : executions) {
+            byId.put(execution.getExecutionId(), execution);
+            ids.add(execution.getExecutionId());
+        }
+        String sql = "SELECT JOB_EXECUTION_ID, PARAMETER_NAME, PARAMETER_TYPE, PARAMETER_VALUE FROM "
+                + tablePrefix + "JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (:ids)";
+        jdbcTemplate.query(sql, new MapSqlParameterSource("ids", ids), rs -> {
+            BatchJobExecutionInfoDTO execution = byId.get(rs.getLong("JOB_EXECUTION_ID"));
+            execution.getJobParameters().put(rs.getString("PARAMETER_NAME"),
+                    parseParameterValue(rs.getString("PARAMETER_TYPE"), rs.getString("PARAMETER_VALUE")));
+        });
+    }
+
+    private static BatchJobExecutionInfoDTO mapRow(ResultSet rs) throws SQLException {
+        return new BatchJobExecutionInfoDTO(
+                rs.getLong("JOB_EXECUTION_ID"),
+                rs.getLong("JOB_INSTANCE_ID"),
+                rs.getString("JOB_NAME"),
+                rs.getString("STATUS"),
+                toLocalDateTime(rs.getTimestamp("START_TIME")),
+                toLocalDateTime(rs.getTimestamp("END_TIME")),
+                rs.getString("EXIT_CODE"),
+                rs.getString("EXIT_MESSAGE"),
+                new HashMap<>());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    // Parameters are stored as strings together with their Java type name
+    public static Object parseParameterValue(String type, String value) {
+        if (value == null || type == null) {
+            return value;
+        }
+        try {
+            return switch (type) {
+                case "java.lang.Long" -> Long.valueOf(value);
+                case "java.lang.Integer" -> Integer.valueOf(value);
+                case "java.lang.Double" -> Double.valueOf(value);
+                case "java.lang.Boolean" -> Boolean.valueOf(value);
+                default -> value;
+            };
+        } catch (NumberFormatException e) {
+            log.debug("Could not parse job parameter value '{}' as {}", value, type);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.schedule_job_runnner.jobrunner.repository;
+
+import com.example.schedule_job_runnner.jobrunner.retention.ArchivedExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds and removes finished executions from the Spring Batch metadata tables for the retention service.
+ * <p>
+ * Executions are removed a batch at a time, each batch in its own short transaction, together with their
+ * step executions, execution contexts and parameters, and their job instance once it has no executions
+ * left. Executions that are still running are never selected.
+ */
+@Slf4j
+@Repository
+public class JobExecutionRetentionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String tablePrefix;
+
+    public JobExecutionRetentionRepository(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                           @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tablePrefix = tablePrefix;
+    }
+
+    /**
+     * Every job name with executions in the repository, including jobs that are no longer registered.
+     */
+    public List<String> findJobNames() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT JOB_NAME FROM " + tablePrefix + "JOB_INSTANCE",
+                new MapSqlParameterSource(), String.class);
+    }
+
+    /**
+     * Oldest first, up to {@code limit} finished executions of the job created before the cutoff that are
+     * not among its {@code keepLast} newest executions.
+     *
+     * @param createdBefore only executions created before this time, all ages when null
+     */
+    public List<Long> findRemovableExecutionIds(String jobName, LocalDateTime createdBefore, int keepLast, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("jobName", jobName);
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT E.JOB_EXECUTION_ID FROM ").append(tablePrefix).append("JOB_EXECUTION E ")
+                .append("JOIN ").append(tablePrefix).append("JOB_INSTANCE I ON E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID ")
+                .append("WHERE I.JOB_NAME = :jobName AND E.END_TIME IS NOT NULL ")
+                .append("AND E.STATUS NOT IN ('STARTING', 'STARTED', 'STOPPING')");
+        if (keepLast > 0) {
+            // Id of the oldest execution that is kept for being among the newest
+            List<Long> kept = jdbcTemplate.queryForList("SELECT E.JOB_EXECUTION_ID FROM " + tablePrefix + "JOB_EXECUTION E "
+                    + "JOIN " + tablePrefix + "JOB_INSTANCE I ON E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID "
+                    + "WHERE I.JOB_NAME = :jobName ORDER BY E.JOB_EXECUTION_ID DESC LIMIT 1 OFFSET :offset",
+                    new MapSqlParameterSource("jobName", jobName).addValue("offset", keepLast - 1), Long.class);
+            if (kept.isEmpty()) {
+                return List.of();
+            }
+            sql.append(" AND E.JOB_EXECUTION_ID < :keptFrom");
+            params.addValue("keptFrom", kept.get(0));
+        }
+        if (createdBefore != null) {
+            sql.append(" AND E.CREATE_TIME < :createdBefore");
+            params.addValue("createdBefore", Timestamp.valueOf(createdBefore));
+        }
+        sql.append(" ORDER BY E.JOB_EXECUTION_ID LIMIT :limit");
+        params.addValue("limit", limit);
+        return jdbcTemplate.queryForList(sql.toString(), params, Long.class);
+    }
+
+    /**
+     * The executions with their parameters, in the form the archive stores them.
+     */
+    public List<ArchivedExecution> loadExecutions(List<Long> executionIds) {
+        if (executionIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", executionIds);
+        Map<Long, List<ArchivedExecution.Parameter>> parameters = new HashMap<>();
+        jdbcTemplate.query("SELECT JOB_EXECUTION_ID, PARAMETER_NAME, PARAMETER_TYPE, PARAMETER_VALUE, IDENTIFYING FROM "
+                + tablePrefix + "JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (:ids)", params, rs -> {
+            parameters.computeIfAbsent(rs.getLong("JOB_EXECUTION_ID"), id -> new ArrayList<>())
+                    .add(new ArchivedExecution.Parameter(rs.getString("PARAMETER_NAME"), rs.getString("PARAMETER_TYPE"),
+                            rs.getString("PARAMETER_VALUE"), "Y".equals(rs.getString("IDENTIFYING"))));
+        });
+        return jdbcTemplate.query("SELECT E.JOB_EXECUTION_ID, E.JOB_INSTANCE_ID, I.JOB_NAME, E.STATUS, E.CREATE_TIME, "
+                + "E.START_TIME, E.END_TIME, E.EXIT_CODE, E.EXIT_MESSAGE FROM " + tablePrefix + "JOB_EXECUTION E "
+                + "JOIN " + tablePrefix + "JOB_INSTANCE I ON E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID "
+                + "WHERE E.JOB_EXECUTION_ID IN (:ids) ORDER BY E.JOB_EXECUTION_ID", params, (rs, rowNum) -> {
+            long executionId = rs.getLong("JOB_EXECUTION_ID");
+            return new ArchivedExecution(
+                    executionId,
+                    rs.getLong("JOB_INSTANCE_ID"),
+                    rs.getString("JOB_NAME"),
+                    rs.getString("STATUS"),
+                    toLocalDateTime(rs.getTimestamp("CREATE_TIME")),
+                    toLocalDateTime(rs.getTimestamp("START_TIME")),
+                    toLocalDateTime(rs.getTimestamp("END_TIME")),
+                    rs.getString("EXIT_CODE"),
+                    rs.getString("EXIT_MESSAGE"),
+                    parameters.getOrDefault(executionId, List.of()));
+        });
+    }
+
+    /**
+     * Deletes the executions and everything hanging off them in one transaction; returns how many
+     * executions were deleted.
+     */
+    public int deleteExecutions(List<Long> executionIds) {
+        if (executionIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", executionIds);
+        return transactionTemplate.execute(status -> {
+            List<Long> instanceIds = jdbcTemplate.queryForList("SELECT DISTINCT JOB_INSTANCE_ID FROM " + tablePrefix
+                    + "JOB_EXECUTION WHERE JOB_EXECUTION_ID IN (:ids)", params, Long.class);
+            jdbcTemplate.update("DELETE FROM " + tablePrefix + "STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN "
+                    + "(SELECT STEP_EXECUTION_ID FROM " + tablePrefix + "STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (:ids))", params);
+            jdbcTemplate.update("DELETE FROM " + tablePrefix + "STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM " + tablePrefix + "JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM " + tablePrefix + "JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (:ids)", params);
+            int deleted = jdbcTemplate.update("DELETE FROM " + tablePrefix + "JOB_EXECUTION WHERE JOB_EXECUTION_ID IN (:ids)", params);
+            if (!instanceIds.isEmpty()) {
+                jdbcTemplate.update("DELETE FROM " + tablePrefix + "JOB_INSTANCE I WHERE I.JOB_INSTANCE_ID IN (:instanceIds) "
+                        + "AND NOT EXISTS (SELECT 1 FROM " + tablePrefix + "JOB_EXECUTION E WHERE E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID)",
+                        new MapSqlParameterSource("instanceIds", instanceIds));
+            }
+            return deleted;
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
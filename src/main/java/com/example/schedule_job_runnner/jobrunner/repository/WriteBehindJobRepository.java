@@ -0,0 +1,248 @@
+package com.example.schedule_job_runnner.jobrunner.repository;
+
+import com.example.schedule_job_runnner.jobrunner.config.WriteBehindProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Job repository front that writes the updates of running executions behind, in batches.
+ * <p>
+ * While a job or step execution is STARTING or STARTED, its {@code update} and
+ * {@code updateExecutionContext} calls only mark it pending; a flush every {@code flushIntervalMillis}
+ * writes the latest state of each pending execution once, however many updates it had in between.
+ * Every other call goes straight through, and so does any update with another status (STOPPING and the
+ * terminal ones), which first writes whatever is still pending for the same execution. Writes for one
+ * execution are serialised on the execution object, so a flush never races its own terminal write.
+ * <p>
+ * Actions registered with {@link #afterTerminalWrite} run once the job execution's terminal write has been
+ * attempted, with its failure if it did not go through, so completion is announced only once it is durable
+ * and the execution is still settled when it is not. A stop marked in the repository reaches a
+ * running step on its next flushed update instead of its next update.
+ */
+@Slf4j
+public class WriteBehindJobRepository implements MethodInterceptor, SmartLifecycle {
+
+    private final JobRepository delegate;
+    private final WriteBehindProperties properties;
+    private final JobRepository proxy;
+
+    // Execution id -> the execution whose state is waiting to be written
+    private final Map<Long, JobExecution> pendingJobs = new ConcurrentHashMap<>();
+    private final Map<Long, StepExecution> pendingSteps = new ConcurrentHashMap<>();
+    private final Map<Long, StepExecution> pendingStepContexts = new ConcurrentHashMap<>();
+    private final Map<Long, Consumer<Throwable>> terminalWriteActions = new ConcurrentHashMap<>();
+
+    private final Counter deferredCounter;
+    private final Counter coalescedCounter;
+    private final Counter flushedCounter;
+
+    private volatile ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public WriteBehindJobRepository(JobRepository delegate, WriteBehindProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(delegate);
+        proxyFactory.addInterface(JobRepository.class);
+        proxyFactory.addAdvice(this);
+        this.proxy = (JobRepository) proxyFactory.getProxy(getClass().getClassLoader());
+
+        this.deferredCounter = Counter.builder("jobrunner.repository.write.behind")
+                .description("Running execution updates handled by the write-behind repository")
+                .tag("result", "deferred")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("jobrunner.repository.write.behind")
+                .description("Running execution updates handled by the write-behind repository")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("jobrunner.repository.write.behind")
+                .description("Running execution updates handled by the write-behind repository")
+                .tag("result", "flushed")
+                .register(meterRegistry);
+        Gauge.builder("jobrunner.repository.write.behind.pending", this, WriteBehindJobRepository::getPendingCount)
+                .description("Executions and steps with an update waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public JobRepository getProxy() {
+        return proxy;
+    }
+
+    /**
+     * Runs the action once the terminal write of the execution has been attempted, with the exception it
+     * failed with or null if it succeeded.
+     */
+    public void afterTerminalWrite(JobExecution jobExecution, Consumer<Throwable> action) {
+        terminalWriteActions.put(jobExecution.getId(), action);
+    }
+
+    public int getPendingCount() {
+        return pendingJobs.size() + pendingSteps.size() + pendingStepContexts.size();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length != 1) {
+            return invocation.proceed();
+        }
+        String method = invocation.getMethod().getName();
+        if ("update".equals(method) && arguments[0] instanceof StepExecution stepExecution) {
+            return deferred(stepExecution.getStatus()) ? defer(pendingSteps, stepExecution.getId(), stepExecution)
+                    : writeStep(stepExecution, invocation);
+        }
+        if ("updateExecutionContext".equals(method) && arguments[0] instanceof StepExecution stepExecution) {
+            return deferred(stepExecution.getStatus()) ? defer(pendingStepContexts, stepExecution.getId(), stepExecution)
+                    : writeStepContext(stepExecution, invocation);
+        }
+        if ("update".equals(method) && arguments[0] instanceof JobExecution jobExecution) {
+            return deferred(jobExecution.getStatus()) ? defer(pendingJobs, jobExecution.getId(), jobExecution)
+                    : writeJob(jobExecution, invocation);
+        }
+        return invocation.proceed();
+    }
+
+    private boolean deferred(BatchStatus status) {
+        return running && (status == BatchStatus.STARTING || status == BatchStatus.STARTED)
+                && getPendingCount() < properties.getMaxPending();
+    }
+
+    private <T> Object defer(Map<Long, T> pending, Long id, T execution) {
+        if (pending.put(id, execution) != null) {
+            coalescedCounter.increment();
+        }
+        deferredCounter.increment();
+        return null;
+    }
+
+    private Object writeStep(StepExecution stepExecution, MethodInvocation invocation) throws Throwable {
+        synchronized (stepExecution) {
+            pendingSteps.remove(stepExecution.getId());
+            if (pendingStepContexts.remove(stepExecution.getId()) != null) {
+                delegate.updateExecutionContext(stepExecution);
+            }
+            return invocation.proceed();
+        }
+    }
+
+    private Object writeStepContext(StepExecution stepExecution, MethodInvocation invocation) throws Throwable {
+        synchronized (stepExecution) {
+            pendingStepContexts.remove(stepExecution.getId());
+            return invocation.proceed();
+        }
+    }
+
+    private Object writeJob(JobExecution jobExecution, MethodInvocation invocation) throws Throwable {
+        Consumer<Throwable> action = null;
+        Throwable failure = null;
+        try {
+            synchronized (jobExecution) {
+                pendingJobs.remove(jobExecution.getId());
+                try {
+                    return invocation.proceed();
+                } catch (Throwable e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    if (!jobExecution.getStatus().isRunning()) {
+                        action = terminalWriteActions.remove(jobExecution.getId());
+                    }
+                }
+            }
+        } finally {
+            // Outside the execution's monitor, after the write went through or failed
+            if (action != null) {
+                action.accept(failure);
+            }
+        }
+    }
+
+    /**
+     * Writes every pending update, step contexts first, then steps, then jobs.
+     */
+    public void flush() {
+        for (StepExecution stepExecution : pendingStepContexts.values()) {
+            synchronized (stepExecution) {
+                if (pendingStepContexts.remove(stepExecution.getId(), stepExecution)) {
+                    write(() -> delegate.updateExecutionContext(stepExecution), "context of step execution", stepExecution.getId());
+                }
+            }
+        }
+        for (StepExecution stepExecution : pendingSteps.values()) {
+            synchronized (stepExecution) {
+                if (pendingSteps.remove(stepExecution.getId(), stepExecution)) {
+                    write(() -> delegate.update(stepExecution), "step execution", stepExecution.getId());
+                }
+            }
+        }
+        for (JobExecution jobExecution : pendingJobs.values()) {
+            synchronized (jobExecution) {
+                if (pendingJobs.remove(jobExecution.getId(), jobExecution)) {
+                    write(() -> delegate.update(jobExecution), "job execution", jobExecution.getId());
+                }
+            }
+        }
+    }
+
+    // A failed write is not retried: the next update of the execution, at the latest its terminal one, carries its state
+    private void write(Runnable write, String what, Long id) {
+        try {
+            write.run();
+            flushedCounter.increment();
+        } catch (RuntimeException e) {
+            log.warn("Write-behind update of {} {} failed: {}", what, id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("write-behind").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flush, properties.getFlushIntervalMillis(), properties.getFlushIntervalMillis(),
+                TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Write-behind job repository started (flush interval={}ms, max pending={})",
+                properties.getFlushIntervalMillis(), properties.getMaxPending());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // Updates from here on are written straight away
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.schedule_job_runnner.jobrunner.retention;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.repository.JobExecutionHistoryRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the archive keeps of an execution: its own row and its parameters as stored in the repository.
+ * Step executions and execution contexts are not archived.
+ */
+public record ArchivedExecution(long executionId, long jobInstanceId, String jobName, String status,
+                                LocalDateTime createTime, LocalDateTime startTime, LocalDateTime endTime,
+                                String exitCode, String exitDescription, List<Parameter> parameters) {
+
+    public record Parameter(String name, String type, String value, boolean identifying) {
+    }
+
+    public BatchJobExecutionInfoDTO toDTO() {
+        Map<String, Object> jobParameters = new HashMap<>();
+        for (Parameter parameter : parameters) {
+            jobParameters.put(parameter.name(), JobExecutionHistoryRepository.parseParameterValue(parameter.type(), parameter.value()));
+        }
+        return new BatchJobExecutionInfoDTO(executionId, jobInstanceId, jobName, status, startTime, endTime,
+                exitCode, exitDescription, jobParameters);
+    }
+}
@@ -0,0 +1,472 @@
+package com.example.schedule_job_runnner.jobrunner.retention;
+
+import com.example.schedule_job_runnner.jobrunner.config.RetentionProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only, compressed store for executions removed from the job repository.
+ * <p>
+ * The archive is a directory of segment files. Every retention batch is appended to the current segment
+ * as one block: a small uncompressed header (job name, record count, execution id and create time
+ * ranges, CRC32) followed by the deflated records. Blocks are never rewritten; a segment is closed once it
+ * reaches {@code segmentMaxBytes} and every process writes its own segments, so several nodes can share
+ * the directory. Only the block headers are kept in memory, and queries decompress just the blocks whose
+ * header can match, newest first, until the requested page is complete.
+ */
+@Slf4j
+@Component
+public class ExecutionArchive implements DisposableBean {
+
+    private static final int BLOCK_MAGIC = 0x4A524131; // "JRA1"
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Header of one block, enough to decide whether the block can hold a queried execution.
+     */
+    private record Block(Path segment, long payloadOffset, int payloadLength, int uncompressedLength, int crc,
+                         String jobName, int count, long minExecutionId, long maxExecutionId,
+                         long minCreateTime, long maxCreateTime) {
+    }
+
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final String segmentPrefix;
+    private final List<Block> blocks = new CopyOnWriteArrayList<>();
+
+    // Guarded by this: how far each segment has been indexed, and the segment being written
+    private final Map<Path, Long> indexedUpTo = new HashMap<>();
+    private final Deflater deflater = new Deflater();
+    private FileChannel writeChannel;
+    private Path writeSegment;
+    private int segmentSequence;
+    private long lastRefreshNanos;
+
+    public ExecutionArchive(RetentionProperties properties) {
+        try {
+            String configured = properties.getArchiveDirectory();
+            this.directory = configured == null || configured.isBlank()
+                    ? Files.createTempDirectory("jobrunner-archive-")
+                    : Files.createDirectories(Path.of(configured));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the execution archive directory", e);
+        }
+        this.segmentMaxBytes = properties.getSegmentMaxBytes();
+        this.segmentPrefix = "executions-" + System.currentTimeMillis() + "-" + ProcessHandle.current().pid() + "-";
+        synchronized (this) {
+            refreshIndex();
+        }
+        log.info("Execution archive in {} with {} blocks", directory, blocks.size());
+    }
+
+    /**
+     * Appends the executions of one job as one block and forces it to disk before returning, so the
+     * caller can delete them from the repository afterwards.
+     */
+    public synchronized void append(String jobName, List<ArchivedExecution> executions) {
+        if (executions.isEmpty()) {
+            return;
+        }
+        byte[] records = encode(executions);
+        deflater.reset();
+        deflater.setInput(records);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(records.length / 4 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        byte[] payload = compressed.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        long minId = Long.MAX_VALUE, maxId = Long.MIN_VALUE, minCreate = Long.MAX_VALUE, maxCreate = Long.MIN_VALUE;
+        for (ArchivedExecution execution : executions) {
+            minId = Math.min(minId, execution.executionId());
+            maxId = Math.max(maxId, execution.executionId());
+            long created = toMillis(execution.createTime());
+            if (created != NO_TIME) {
+                minCreate = Math.min(minCreate, created);
+                maxCreate = Math.max(maxCreate, created);
+            }
+        }
+        if (minCreate == Long.MAX_VALUE) {
+            minCreate = NO_TIME;
+            maxCreate = NO_TIME;
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream header = new DataOutputStream(headerBytes)) {
+            header.writeUTF(jobName);
+            header.writeInt(executions.size());
+            header.writeLong(minId);
+            header.writeLong(maxId);
+            header.writeLong(minCreate);
+            header.writeLong(maxCreate);
+            header.writeInt(records.length);
+            header.writeInt(payload.length);
+            header.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ByteBuffer block = ByteBuffer.allocate(8 + headerBytes.size() + payload.length);
+        block.putInt(BLOCK_MAGIC).putInt(headerBytes.size()).put(headerBytes.toByteArray()).put(payload).flip();
+
+        try {
+            FileChannel channel = writeChannel();
+            long blockOffset = channel.size();
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            channel.force(false);
+            long payloadOffset = blockOffset + 8 + headerBytes.size();
+            blocks.add(new Block(writeSegment, payloadOffset, payload.length, records.length, (int) crc.getValue(),
+                    jobName, executions.size(), minId, maxId, minCreate, maxCreate));
+            indexedUpTo.put(writeSegment, payloadOffset + payload.length);
+            if (channel.size() >= segmentMaxBytes) {
+                channel.close();
+                writeChannel = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the execution archive", e);
+        }
+        log.debug("Archived {} executions of job '{}' ({} bytes, {} compressed)", executions.size(), jobName,
+                records.length, payload.length);
+    }
+
+    /**
+     * Archived executions of the job, newest first, with the same filters as the history query.
+     */
+    public List<BatchJobExecutionInfoDTO> findExecutions(String jobName, Collection<BatchStatus> statuses,
+                                                         LocalDateTime from, LocalDateTime to,
+                                                         Long beforeExecutionId, int limit) {
+        refreshIfStale();
+        long fromMillis = from != null ? toMillis(from) : Long.MIN_VALUE;
+        long toMillis = to != null ? toMillis(to) : Long.MAX_VALUE;
+        List<Block> candidates = new ArrayList<>();
+        for (Block block : blocks) {
+            if (block.jobName().equals(jobName)
+                    && (beforeExecutionId == null || block.minExecutionId() < beforeExecutionId)
+                    && (block.minCreateTime() == NO_TIME || (block.maxCreateTime() >= fromMillis && block.minCreateTime() < toMillis))) {
+                candidates.add(block);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(Block::maxExecutionId).reversed());
+
+        // Ascending by id; the smallest is dropped whenever there are more than limit
+        TreeMap<Long, ArchivedExecution> page = new TreeMap<>();
+        for (Block block : candidates) {
+            if (page.size() >= limit && block.maxExecutionId() < page.firstKey()) {
+                break;
+            }
+            for (ArchivedExecution execution : read(block)) {
+                if (matches(execution, statuses, fromMillis, toMillis, beforeExecutionId)) {
+                    page.put(execution.executionId(), execution);
+                    if (page.size() > limit) {
+                        page.pollFirstEntry();
+                    }
+                }
+            }
+        }
+        List<BatchJobExecutionInfoDTO> executions = new ArrayList<>(page.size());
+        for (ArchivedExecution execution : page.descendingMap().values()) {
+            executions.add(execution.toDTO());
+        }
+        return executions;
+    }
+
+    public BatchJobExecutionInfoDTO findExecution(long executionId) {
+        refreshIfStale();
+        for (Block block : blocks) {
+            if (block.minExecutionId() <= executionId && executionId <= block.maxExecutionId()) {
+                for (ArchivedExecution execution : read(block)) {
+                    if (execution.executionId() == executionId) {
+                        return execution.toDTO();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether any archived execution of the job has an id above the given one; lets a full page from the
+     * repository skip the archive when everything archived is older.
+     */
+    public boolean hasExecutionsAbove(String jobName, long executionId) {
+        refreshIfStale();
+        for (Block block : blocks) {
+            if (block.maxExecutionId() > executionId && block.jobName().equals(jobName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    public long getArchivedCount() {
+        long count = 0;
+        for (Block block : blocks) {
+            count += block.count();
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (writeChannel != null) {
+            writeChannel.close();
+            writeChannel = null;
+        }
+        deflater.end();
+    }
+
+    private static boolean matches(ArchivedExecution execution, Collection<BatchStatus> statuses,
+                                   long fromMillis, long toMillis, Long beforeExecutionId) {
+        if (beforeExecutionId != null && execution.executionId() >= beforeExecutionId) {
+            return false;
+        }
+        if (statuses != null && !statuses.isEmpty() && !containsStatus(statuses, execution.status())) {
+            return false;
+        }
+        long created = toMillis(execution.createTime());
+        return (fromMillis == Long.MIN_VALUE && toMillis == Long.MAX_VALUE)
+                || (created != NO_TIME && created >= fromMillis && created < toMillis);
+    }
+
+    private static boolean containsStatus(Collection<BatchStatus> statuses, String status) {
+        for (BatchStatus candidate : statuses) {
+            if (candidate.name().equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private FileChannel writeChannel() throws IOException {
+        if (writeChannel == null) {
+            writeSegment = directory.resolve(segmentPrefix + String.format("%06d", ++segmentSequence) + SEGMENT_SUFFIX);
+            writeChannel = FileChannel.open(writeSegment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+        return writeChannel;
+    }
+
+    // Picks up blocks appended by other processes sharing the directory, at most once a second
+    private void refreshIfStale() {
+        synchronized (this) {
+            if (System.nanoTime() - lastRefreshNanos >= REFRESH_INTERVAL_NANOS) {
+                refreshIndex();
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void refreshIndex() {
+        lastRefreshNanos = System.nanoTime();
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : segments) {
+                long indexed = indexedUpTo.getOrDefault(segment, 0L);
+                if (Files.size(segment) > indexed) {
+                    indexedUpTo.put(segment, indexSegment(segment, indexed));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan the execution archive in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    // Reads block headers from the offset on and returns where the last complete block ends
+    private long indexSegment(Path segment, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer prefix = ByteBuffer.allocate(8);
+            while (offset + 8 <= size) {
+                prefix.clear();
+                readFully(channel, prefix, offset);
+                if (prefix.getInt(0) != BLOCK_MAGIC || prefix.getInt(4) < 0) {
+                    log.warn("Archive segment {} is corrupt at offset {}, ignoring the rest of it", segment, offset);
+                    return size;
+                }
+                int headerLength = prefix.getInt(4);
+                if (offset + 8 + headerLength > size) {
+                    break; // block still being written
+                }
+                ByteBuffer headerBuffer = ByteBuffer.allocate(headerLength);
+                readFully(channel, headerBuffer, offset + 8);
+                DataInputStream header = new DataInputStream(new ByteArrayInputStream(headerBuffer.array()));
+                String jobName = header.readUTF();
+                int count = header.readInt();
+                long minId = header.readLong();
+                long maxId = header.readLong();
+                long minCreate = header.readLong();
+                long maxCreate = header.readLong();
+                int uncompressedLength = header.readInt();
+                int payloadLength = header.readInt();
+                int crc = header.readInt();
+                long payloadOffset = offset + 8 + headerLength;
+                if (payloadOffset + payloadLength > size) {
+                    break;
+                }
+                blocks.add(new Block(segment, payloadOffset, payloadLength, uncompressedLength, crc,
+                        jobName, count, minId, maxId, minCreate, maxCreate));
+                offset = payloadOffset + payloadLength;
+            }
+            return offset;
+        }
+    }
+
+    private List<ArchivedExecution> read(Block block) {
+        try (FileChannel channel = FileChannel.open(block.segment(), StandardOpenOption.READ)) {
+            ByteBuffer payload = ByteBuffer.allocate(block.payloadLength());
+            readFully(channel, payload, block.payloadOffset());
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != block.crc()) {
+                log.warn("Archive block at {} of {} fails its checksum, skipping it", block.payloadOffset(), block.segment());
+                return List.of();
+            }
+            Inflater inflater = new Inflater();
+            byte[] records = new byte[block.uncompressedLength()];
+            try {
+                inflater.setInput(payload.array());
+                int inflated = 0;
+                while (inflated < records.length && !inflater.finished()) {
+                    inflated += inflater.inflate(records, inflated, records.length - inflated);
+                }
+            } finally {
+                inflater.end();
+            }
+            return decode(block.jobName(), block.count(), records);
+        } catch (IOException | DataFormatException e) {
+            log.warn("Could not read archive block at {} of {}: {}", block.payloadOffset(), block.segment(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive segment");
+            }
+        }
+    }
+
+    private static byte[] encode(List<ArchivedExecution> executions) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(executions.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (ArchivedExecution execution : executions) {
+                out.writeLong(execution.executionId());
+                out.writeLong(execution.jobInstanceId());
+                writeString(out, execution.status());
+                out.writeLong(toMillis(execution.createTime()));
+                out.writeLong(toMillis(execution.startTime()));
+                out.writeLong(toMillis(execution.endTime()));
+                writeString(out, execution.exitCode());
+                writeString(out, execution.exitDescription());
+                out.writeInt(execution.parameters().size());
+                for (ArchivedExecution.Parameter parameter : execution.parameters()) {
+                    writeString(out, parameter.name());
+                    writeString(out, parameter.type());
+                    writeString(out, parameter.value());
+                    out.writeBoolean(parameter.identifying());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ArchivedExecution> decode(String jobName, int count, byte[] records) throws IOException {
+        List<ArchivedExecution> executions = new ArrayList<>(count);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(records));
+        for (int i = 0; i < count; i++) {
+            long executionId = in.readLong();
+            long jobInstanceId = in.readLong();
+            String status = readString(in);
+            LocalDateTime createTime = fromMillis(in.readLong());
+            LocalDateTime startTime = fromMillis(in.readLong());
+            LocalDateTime endTime = fromMillis(in.readLong());
+            String exitCode = readString(in);
+            String exitDescription = readString(in);
+            int parameterCount = in.readInt();
+            List<ArchivedExecution.Parameter> parameters = new ArrayList<>(parameterCount);
+            for (int p = 0; p < parameterCount; p++) {
+                parameters.add(new ArchivedExecution.Parameter(readString(in), readString(in), readString(in), in.readBoolean()));
+            }
+            executions.add(new ArchivedExecution(executionId, jobInstanceId, jobName, status, createTime, startTime,
+                    endTime, exitCode, exitDescription, parameters));
+        }
+        return executions;
+    }
+
+    // Length-prefixed UTF-8, -1 for null; unlike writeUTF it has no 64 KB limit
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time).getTime() : NO_TIME;
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return millis != NO_TIME ? new Timestamp(millis).toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.schedule_job_runnner.jobrunner.retention;
+
+import com.example.schedule_job_runnner.jobrunner.config.RetentionProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.RetentionRunDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.RetentionStatusDTO;
+import com.example.schedule_job_runnner.jobrunner.repository.JobExecutionRetentionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the job repository from growing without bound by removing old finished executions.
+ * <p>
+ * Every {@code intervalMillis} each job's policy is applied: executions older than {@code maxAge} and
+ * not among the job's {@code keepLast} newest are archived (or just deleted) a batch at a time. Each
+ * batch is one short transaction, with a pause between batches, so launches and queries are never held
+ * up behind a long delete. Archived batches are forced to disk before they are deleted.
+ */
+@Slf4j
+@Service
+public class RetentionService implements SmartLifecycle {
+
+    private final JobExecutionRetentionRepository retentionRepository;
+    private final ExecutionArchive archive;
+    private final RetentionProperties properties;
+    private final Counter archivedCounter;
+    private final Counter deletedCounter;
+
+    private final AtomicBoolean runInProgress = new AtomicBoolean();
+    private volatile RetentionRunDTO lastRun;
+    private volatile ScheduledExecutorService timer;
+    private volatile boolean running;
+
+    public RetentionService(JobExecutionRetentionRepository retentionRepository, ExecutionArchive archive,
+                            RetentionProperties properties, MeterRegistry meterRegistry) {
+        this.retentionRepository = retentionRepository;
+        this.archive = archive;
+        this.properties = properties;
+        this.archivedCounter = Counter.builder("jobrunner.retention.executions")
+                .description("Executions removed from the job repository by retention")
+                .tag("action", "archived")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("jobrunner.retention.executions")
+                .description("Executions removed from the job repository by retention")
+                .tag("action", "deleted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies the retention policies once, unless a run is already in progress (then returns null).
+     */
+    public RetentionRunDTO runOnce() {
+        if (!runInProgress.compareAndSet(false, true)) {
+            return null;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        int batches = 0;
+        long archived = 0;
+        long deleted = 0;
+        String error = null;
+        try {
+            for (String jobName : retentionRepository.findJobNames()) {
+                RetentionProperties.Policy policy = properties.policyFor(jobName);
+                Duration maxAge = policy.getMaxAge();
+                LocalDateTime createdBefore = maxAge != null && !maxAge.isZero() ? startedAt.minus(maxAge) : null;
+                boolean archiving = policy.getAction() == RetentionProperties.Action.ARCHIVE;
+                List<Long> ids;
+                do {
+                    ids = retentionRepository.findRemovableExecutionIds(jobName, createdBefore,
+                            policy.getKeepLast(), Math.max(1, properties.getBatchSize()));
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    if (archiving) {
+                        archive.append(jobName, retentionRepository.loadExecutions(ids));
+                        archived += ids.size();
+                        archivedCounter.increment(ids.size());
+                    }
+                    int removed = retentionRepository.deleteExecutions(ids);
+                    deleted += removed;
+                    deletedCounter.increment(removed);
+                    batches++;
+                    pauseBetweenBatches();
+                } while (ids.size() >= properties.getBatchSize() && !Thread.currentThread().isInterrupted());
+            }
+        } catch (RuntimeException e) {
+            log.error("Retention run stopped after {} batches", batches, e);
+            error = e.getMessage();
+        } finally {
+            runInProgress.set(false);
+        }
+        RetentionRunDTO run = RetentionRunDTO.builder()
+                .startedAt(startedAt)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                .batches(batches)
+                .archived(archived)
+                .deleted(deleted)
+                .error(error)
+                .build();
+        lastRun = run;
+        if (deleted > 0) {
+            log.info("Retention removed {} executions ({} archived) in {} batches", deleted, archived, batches);
+        }
+        return run;
+    }
+
+    public RetentionStatusDTO getStatus() {
+        return RetentionStatusDTO.builder()
+                .enabled(properties.isEnabled())
+                .running(runInProgress.get())
+                .lastRun(lastRun)
+                .archiveDirectory(archive.getDirectory().toString())
+                .archiveBlocks(archive.getBlockCount())
+                .archivedExecutions(archive.getArchivedCount())
+                .build();
+    }
+
+    private void pauseBetweenBatches() {
+        if (properties.getBatchPauseMillis() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getBatchPauseMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("retention").daemon().factory());
+        timer.scheduleWithFixedDelay(this::runOnce, properties.getIntervalMillis(), properties.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Retention started (interval={}ms, maxAge={}, keepLast={}, action={}, overrides={})",
+                properties.getIntervalMillis(), properties.getMaxAge(), properties.getKeepLast(), properties.getAction(),
+                properties.getJobs().keySet());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        timer.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
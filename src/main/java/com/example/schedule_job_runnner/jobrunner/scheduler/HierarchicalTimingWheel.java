@@ -0,0 +1,111 @@
+package com.example.schedule_job_runnner.jobrunner.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel keyed by absolute tick numbers.
+ * <p>
+ * Level 0 has one slot per tick; each higher level has 64 slots that each cover a whole rotation of
+ * the level below. Scheduling is O(1) and advancing by one tick only touches the current level 0 slot,
+ * plus a cascade of one higher-level slot every 64 ticks, independent of how many items are scheduled.
+ * Not thread-safe: the wheel is owned by a single ticker thread.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final int levels;
+    private final long span;
+    private final ArrayDeque<Entry<T>>[][] wheel;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(int levels, long startTick) {
+        if (levels < 1 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Unsupported number of wheel levels: " + levels);
+        }
+        this.levels = levels;
+        this.span = 1L << (SLOT_BITS * levels);
+        this.wheel = new ArrayDeque[levels][SLOTS];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[level][slot] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedules the item to expire at the given tick. Ticks that are already due expire on the next advance.
+     */
+    public void schedule(T item, long expiryTick) {
+        place(new Entry<>(item, Math.max(expiryTick, currentTick + 1)));
+        size++;
+    }
+
+    /**
+     * Advances the wheel up to and including {@code tick}, handing every expired item to the consumer.
+     */
+    public void advance(long tick, Consumer<T> onExpired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Cascade higher levels first so entries can fall through several levels on the same tick
+            for (int level = levels - 1; level >= 1; level--) {
+                int shift = SLOT_BITS * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(wheel[level][(int) ((currentTick >>> shift) & SLOT_MASK)]);
+                }
+            }
+            ArrayDeque<Entry<T>> due = wheel[0][(int) (currentTick & SLOT_MASK)];
+            int count = due.size();
+            for (int i = 0; i < count; i++) {
+                Entry<T> entry = due.poll();
+                if (entry.expiryTick > currentTick) {
+                    // Parked beyond the wheel's span on a single-level wheel
+                    place(entry);
+                    continue;
+                }
+                size--;
+                onExpired.accept(entry.item);
+            }
+        }
+    }
+
+    private void cascade(ArrayDeque<Entry<T>> bucket) {
+        int count = bucket.size();
+        for (int i = 0; i < count; i++) {
+            place(bucket.poll());
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.expiryTick - currentTick;
+        long slotTick = entry.expiryTick;
+        if (delta >= span) {
+            // Beyond the top level: park it in the furthest slot and re-place it when that slot cascades
+            slotTick = currentTick + span - 1;
+            delta = span - 1;
+        }
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        wheel[level][slot].add(entry);
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private record Entry<T>(T item, long expiryTick) {
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.schedule_job_runnner.jobrunner.scheduler;
+
+import com.example.schedule_job_runnner.jobrunner.config.SchedulerProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.JobTriggerDTO;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchRejectedException;
+import com.example.schedule_job_runnner.jobrunner.service.JobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process scheduler that fires cron and fixed-rate triggers through {@link JobService#launchJob}.
+ * <p>
+ * All triggers live in one {@link HierarchicalTimingWheel} driven by a single ticker thread, so the
+ * cost per tick does not grow with the number of registered triggers. Registrations from API threads
+ * are handed to the ticker through a lock-free queue; removals just flag the trigger, which is then
+ * dropped when it next expires. The launch itself runs on a virtual thread so a slow repository write
+ * never delays the ticker. Triggers are kept in memory only and are not restored after a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobSchedulerService implements SmartLifecycle {
+
+    private final JobService jobService;
+    private final JobRegistry jobRegistry;
+    private final SchedulerProperties properties;
+
+    private final Map<String, JobTrigger> triggers = new ConcurrentHashMap<>();
+    private final Queue<JobTrigger> incoming = new ConcurrentLinkedQueue<>();
+
+    // Owned by the ticker thread
+    private HierarchicalTimingWheel<JobTrigger> wheel;
+    private long startNanos;
+    private long startMillis;
+
+    private ExecutorService fireExecutor;
+    private volatile Thread ticker;
+    private volatile boolean running;
+
+    public JobTrigger addTrigger(String jobName, TriggerType type, String cronExpression, Long intervalMillis,
+                                 Long initialDelayMillis, MisfirePolicy misfirePolicy, Map<String, Object> jobParameters) {
+        if (jobName == null || !jobRegistry.getJobNames().contains(jobName)) {
+            throw new IllegalArgumentException("Unknown job: " + jobName);
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Trigger type is required");
+        }
+        long interval = 0;
+        if (type == TriggerType.FIXED_RATE) {
+            if (intervalMillis == null || intervalMillis < properties.getTickMillis()) {
+                throw new IllegalArgumentException("intervalMillis must be at least " + properties.getTickMillis());
+            }
+            interval = intervalMillis;
+        } else if (cronExpression == null) {
+            throw new IllegalArgumentException("cronExpression is required for CRON triggers");
+        }
+
+        long now = System.currentTimeMillis();
+        JobTrigger trigger = new JobTrigger(UUID.randomUUID().toString(), jobName, type, cronExpression, interval,
+                misfirePolicy != null ? misfirePolicy : MisfirePolicy.FIRE_ONCE_NOW,
+                jobParameters != null ? jobParameters : Map.of(), now);
+
+        long firstFire;
+        if (type == TriggerType.FIXED_RATE) {
+            firstFire = now + (initialDelayMillis != null ? Math.max(0, initialDelayMillis) : interval);
+        } else {
+            firstFire = trigger.computeNextFireTime(now, now + (initialDelayMillis != null ? Math.max(0, initialDelayMillis) : 0));
+            if (firstFire < 0) {
+                throw new IllegalArgumentException("Cron expression never fires: " + cronExpression);
+            }
+        }
+        trigger.setNextFireTimeMillis(firstFire);
+
+        triggers.put(trigger.getId(), trigger);
+        incoming.offer(trigger);
+        log.info("Registered {} trigger {} for job '{}', first fire at {}", type, trigger.getId(), jobName, firstFire);
+        return trigger;
+    }
+
+    public boolean removeTrigger(String triggerId) {
+        JobTrigger trigger = triggers.remove(triggerId);
+        if (trigger == null) {
+            return false;
+        }
+        trigger.cancel();
+        log.info("Removed trigger {} for job '{}'", triggerId, trigger.getJobName());
+        return true;
+    }
+
+    public Collection<JobTrigger> getTriggers() {
+        return new ArrayList<>(triggers.values());
+    }
+
+    public Optional<JobTrigger> getTrigger(String triggerId) {
+        return Optional.ofNullable(triggers.get(triggerId));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        // Fail the context rather than spin: the tick loop divides by the tick and parks for it
+        if (properties.getTickMillis() < 1) {
+            throw new IllegalStateException("jobrunner.scheduler.tick-millis must be at least 1, was " + properties.getTickMillis());
+        }
+        if (properties.getWheelLevels() < 1) {
+            throw new IllegalStateException("jobrunner.scheduler.wheel-levels must be at least 1, was " + properties.getWheelLevels());
+        }
+        startNanos = System.nanoTime();
+        startMillis = System.currentTimeMillis();
+        wheel = new HierarchicalTimingWheel<>(properties.getWheelLevels(), 0);
+        fireExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("job-scheduler-fire-", 0).factory());
+        running = true;
+        ticker = Thread.ofPlatform().name("job-scheduler-ticker").daemon(true).start(this::tickLoop);
+        log.info("Job scheduler started (tick={}ms, levels={})", properties.getTickMillis(), properties.getWheelLevels());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread t = ticker;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        fireExecutor.shutdown();
+        log.info("Job scheduler stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tickLoop() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTickMillis());
+        while (running) {
+            try {
+                JobTrigger added;
+                while ((added = incoming.poll()) != null) {
+                    if (!added.isCancelled()) {
+                        wheel.schedule(added, toTick(added.getNextFireTimeMillis()));
+                    }
+                }
+                long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+                if (nowTick > wheel.currentTick()) {
+                    wheel.advance(nowTick, this::onExpired);
+                }
+            } catch (Throwable t) {
+                log.error("Error in job scheduler tick", t);
+            }
+            long nextTickAt = startNanos + (wheel.currentTick() + 1) * tickNanos;
+            LockSupport.parkNanos(nextTickAt - System.nanoTime());
+        }
+    }
+
+    private void onExpired(JobTrigger trigger) {
+        if (trigger.isCancelled()) {
+            return;
+        }
+        long scheduledAt = trigger.getNextFireTimeMillis();
+        long now = System.currentTimeMillis();
+        if (scheduledAt > now) {
+            // Tick rounding or wall-clock drift relative to the monotonic ticker: not due yet
+            wheel.schedule(trigger, toTick(scheduledAt));
+            return;
+        }
+
+        boolean misfired = now - scheduledAt > properties.getMisfireThresholdMillis();
+        boolean fire = true;
+        long nextAfter = scheduledAt;
+        if (misfired) {
+            trigger.recordMisfire();
+            switch (trigger.getMisfirePolicy()) {
+                case SKIP -> {
+                    fire = false;
+                    nextAfter = now;
+                }
+                case FIRE_ONCE_NOW -> nextAfter = now;
+                case FIRE_ALL_MISSED -> nextAfter = scheduledAt;
+            }
+            log.warn("Trigger {} for job '{}' misfired by {}ms, applying {}", trigger.getId(), trigger.getJobName(),
+                    now - scheduledAt, trigger.getMisfirePolicy());
+        }
+
+        if (fire) {
+            trigger.recordFire(now);
+            fireExecutor.execute(() -> fire(trigger, scheduledAt));
+        }
+
+        long next = trigger.computeNextFireTime(scheduledAt, nextAfter);
+        if (next < 0) {
+            log.info("Trigger {} for job '{}' has no further fire times, removing it", trigger.getId(), trigger.getJobName());
+            triggers.remove(trigger.getId());
+            return;
+        }
+        trigger.setNextFireTimeMillis(next);
+        wheel.schedule(trigger, toTick(next));
+    }
+
+    private void fire(JobTrigger trigger, long scheduledAt) {
+        Map<String, Object> params = new HashMap<>(trigger.getJobParameters());
+        params.putIfAbsent("customJobName", trigger.getJobName() + "_sched_" + scheduledAt);
+        params.put("triggerId", trigger.getId());
+        // The scheduled time keeps the job instance stable if the same occurrence were ever fired twice
+        params.put("launchTime", scheduledAt);
+        try {
+            jobService.launchJob(trigger.getJobName(), params);
+        } catch (JobLaunchRejectedException e) {
+            trigger.recordRejected();
+            log.warn("Scheduled launch of '{}' by trigger {} rejected: {}", trigger.getJobName(), trigger.getId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Scheduled launch of '{}' by trigger {} failed", trigger.getJobName(), trigger.getId(), e);
+        }
+    }
+
+    private long toTick(long epochMillis) {
+        long delta = epochMillis - startMillis;
+        // Round up so a trigger never fires before its scheduled time
+        return delta <= 0 ? 0 : (delta + properties.getTickMillis() - 1) / properties.getTickMillis();
+    }
+
+    public JobTriggerDTO mapToDTO(JobTrigger trigger) {
+        return JobTriggerDTO.builder()
+                .triggerId(trigger.getId())
+                .jobName(trigger.getJobName())
+                .type(trigger.getType().toString())
+                .cronExpression(trigger.getCronExpression())
+                .intervalMillis(trigger.getType() == TriggerType.FIXED_RATE ? trigger.getIntervalMillis() : null)
+                .misfirePolicy(trigger.getMisfirePolicy().toString())
+                .jobParameters(trigger.getJobParameters())
+                .createdAt(toLocalDateTime(trigger.getCreatedAtMillis()))
+                .nextFireTime(toLocalDateTime(trigger.getNextFireTimeMillis()))
+                .lastFireTime(toLocalDateTime(trigger.getLastFireTimeMillis()))
+                .fireCount(trigger.getFireCount())
+                .misfireCount(trigger.getMisfireCount())
+                .rejectedCount(trigger.getRejectedCount())
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()) : null;
+    }
+}
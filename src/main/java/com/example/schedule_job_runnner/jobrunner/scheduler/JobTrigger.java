@@ -0,0 +1,93 @@
+package com.example.schedule_job_runnner.jobrunner.scheduler;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A registered cron or fixed-rate trigger. The definition is immutable; the runtime state is written
+ * by the scheduler's ticker thread (rejections by the fire threads) and read by API callers.
+ */
+@Getter
+public class JobTrigger {
+
+    private final String id;
+    private final String jobName;
+    private final TriggerType type;
+    private final String cronExpression;
+    private final long intervalMillis;
+    private final MisfirePolicy misfirePolicy;
+    private final Map<String, Object> jobParameters;
+    private final long createdAtMillis;
+
+    private final CronExpression cron;
+
+    private volatile long nextFireTimeMillis;
+    private volatile long lastFireTimeMillis;
+    private volatile long fireCount;
+    private volatile long misfireCount;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private volatile boolean cancelled;
+
+    public JobTrigger(String id, String jobName, TriggerType type, String cronExpression, long intervalMillis,
+                      MisfirePolicy misfirePolicy, Map<String, Object> jobParameters, long createdAtMillis) {
+        this.id = id;
+        this.jobName = jobName;
+        this.type = type;
+        this.cronExpression = cronExpression;
+        this.intervalMillis = intervalMillis;
+        this.misfirePolicy = misfirePolicy;
+        this.jobParameters = Map.copyOf(jobParameters);
+        this.createdAtMillis = createdAtMillis;
+        this.cron = type == TriggerType.CRON ? CronExpression.parse(cronExpression) : null;
+    }
+
+    /**
+     * Next fire time strictly after {@code afterMillis}, or -1 if the cron expression never matches again.
+     * Fixed-rate triggers keep their phase relative to {@code previousFireMillis}.
+     */
+    long computeNextFireTime(long previousFireMillis, long afterMillis) {
+        if (type == TriggerType.FIXED_RATE) {
+            if (previousFireMillis + intervalMillis > afterMillis) {
+                return previousFireMillis + intervalMillis;
+            }
+            long missed = (afterMillis - previousFireMillis) / intervalMillis;
+            return previousFireMillis + (missed + 1) * intervalMillis;
+        }
+        ZonedDateTime after = ZonedDateTime.ofInstant(Instant.ofEpochMilli(afterMillis), ZoneId.systemDefault());
+        ZonedDateTime next = cron.next(after);
+        return next != null ? next.toInstant().toEpochMilli() : -1;
+    }
+
+    void recordFire(long firedAtMillis) {
+        lastFireTimeMillis = firedAtMillis;
+        fireCount++;
+    }
+
+    void recordMisfire() {
+        misfireCount++;
+    }
+
+    void recordRejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    void setNextFireTimeMillis(long nextFireTimeMillis) {
+        this.nextFireTimeMillis = nextFireTimeMillis;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.schedule_job_runnner.jobrunner.scheduler;
+
+/**
+ * What a trigger does when it fires later than {@code jobrunner.scheduler.misfire-threshold-millis}
+ * after its scheduled time (e.g. after a long GC pause or while the ticker was starved).
+ */
+public enum MisfirePolicy {
+    // Fire once now and continue the schedule from the current time
+    FIRE_ONCE_NOW,
+    // Drop the missed fire and continue the schedule from the current time
+    SKIP,
+    // Fire every missed occurrence, one per tick, until the trigger has caught up
+    FIRE_ALL_MISSED
+}
@@ -0,0 +1,6 @@
+package com.example.schedule_job_runnner.jobrunner.scheduler;
+
+public enum TriggerType {
+    CRON,
+    FIXED_RATE
+}
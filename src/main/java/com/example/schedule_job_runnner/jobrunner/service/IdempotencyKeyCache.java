@@ -0,0 +1,85 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Recent idempotency keys and the launch each one produced. Keys are scoped to their job name, but the
+ * bound is shared by all jobs.
+ * <p>
+ * A key is reserved with an incomplete future before the launch runs, so a duplicate that arrives
+ * while the original is still launching waits for it instead of launching again. Entries are kept in
+ * least recently used order, at most {@code maxEntries} of them across all jobs and for at most
+ * {@code ttl}; a launch that fails releases its key so the client can retry with it.
+ */
+class IdempotencyKeyCache {
+
+    private static final class Entry {
+        private final CompletableFuture<BatchJobExecutionInfoDTO> result;
+        private final long expiresAtNanos;
+
+        private Entry(CompletableFuture<BatchJobExecutionInfoDTO> result, long expiresAtNanos) {
+            this.result = result;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final long ttlNanos;
+    // Access ordered, guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+
+    IdempotencyKeyCache(int maxEntries, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Reserves the key for the caller's launch and returns null, or returns the launch already
+     * registered for it, which may still be in progress.
+     */
+    synchronized CompletableFuture<BatchJobExecutionInfoDTO> reserve(String jobName, String key,
+                                                                     CompletableFuture<BatchJobExecutionInfoDTO> reservation) {
+        String cacheKey = cacheKey(jobName, key);
+        Entry entry = live(cacheKey);
+        if (entry != null) {
+            return entry.result;
+        }
+        entries.put(cacheKey, new Entry(reservation, System.nanoTime() + ttlNanos));
+        return null;
+    }
+
+    synchronized void release(String jobName, String key, CompletableFuture<BatchJobExecutionInfoDTO> reservation) {
+        String cacheKey = cacheKey(jobName, key);
+        Entry entry = entries.get(cacheKey);
+        if (entry != null && entry.result == reservation) {
+            entries.remove(cacheKey);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // Caller holds the lock
+    private Entry live(String cacheKey) {
+        Entry entry = entries.get(cacheKey);
+        if (entry != null && System.nanoTime() - entry.expiresAtNanos > 0) {
+            entries.remove(cacheKey);
+            return null;
+        }
+        return entry;
+    }
+
+    private static String cacheKey(String jobName, String key) {
+        return jobName + '\u0000' + key;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import com.example.schedule_job_runnner.jobrunner.config.JdbcSchedulerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking JobExplorer/JobRepository/JDBC calls on a dedicated bounded scheduler so they never
+ * occupy a Netty event-loop thread. Saturation is exported as {@code jobrunner.jdbc.scheduler.*}
+ * gauges (active, pending, capacity) and timers for queue wait and call latency per operation.
+ */
+@Slf4j
+@Component
+public class JdbcOffloader implements DisposableBean {
+
+    private final Scheduler scheduler;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+    private final Map<String, Timer> callTimers = new ConcurrentHashMap<>();
+
+    public JdbcOffloader(JdbcSchedulerProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.scheduler = Schedulers.newBoundedElastic(properties.getThreadCap(), properties.getQueuedTaskCap(), "jdbc-io");
+
+        Gauge.builder("jobrunner.jdbc.scheduler.active", active, AtomicInteger::get)
+                .description("Repository calls currently running on the JDBC scheduler")
+                .register(meterRegistry);
+        Gauge.builder("jobrunner.jdbc.scheduler.pending", pending, AtomicInteger::get)
+                .description("Repository calls waiting for a JDBC scheduler thread")
+                .register(meterRegistry);
+        Gauge.builder("jobrunner.jdbc.scheduler.capacity", properties, JdbcSchedulerProperties::getThreadCap)
+                .description("Maximum number of JDBC scheduler threads")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("jobrunner.jdbc.scheduler.queue.wait")
+                .description("Time repository calls waited for a JDBC scheduler thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("jobrunner.jdbc.scheduler.rejected")
+                .description("Repository calls rejected because the JDBC scheduler queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Defers the call until subscription and runs it on the JDBC scheduler. A null result completes empty.
+     */
+    public <T> Mono<T> mono(String operation, Callable<T> call) {
+        return Mono.defer(() -> {
+            long submittedAt = System.nanoTime();
+            AtomicBoolean started = new AtomicBoolean();
+            pending.incrementAndGet();
+            return Mono.fromCallable(() -> {
+                        if (started.compareAndSet(false, true)) {
+                            pending.decrementAndGet();
+                        }
+                        long startedAt = System.nanoTime();
+                        queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                        active.incrementAndGet();
+                        try {
+                            return call.call();
+                        } finally {
+                            active.decrementAndGet();
+                            callTimer(operation).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    .doOnError(RejectedExecutionException.class, e -> rejectedCounter.increment())
+                    .doFinally(signal -> {
+                        // Cancelled or rejected before it ever ran
+                        if (started.compareAndSet(false, true)) {
+                            pending.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    public <T> Flux<T> flux(String operation, Callable<? extends Iterable<T>> call) {
+        return mono(operation, call).flatMapIterable(items -> items);
+    }
+
+    private Timer callTimer(String operation) {
+        return callTimers.computeIfAbsent(operation, op -> Timer.builder("jobrunner.jdbc.call")
+                .description("Latency of blocking repository calls")
+                .tag("operation", op)
+                .register(meterRegistry));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
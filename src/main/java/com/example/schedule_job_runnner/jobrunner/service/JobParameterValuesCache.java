@@ -0,0 +1,77 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plain parameter values of live executions, converted once per execution.
+ * <p>
+ * Job parameters never change after launch, so the launch, the listener callbacks and every snapshot
+ * of a running execution can share one read-only map. Only running executions are cached; entries are
+ * evicted when the execution finishes. Some running executions never finish in this process (leftovers
+ * of a crashed one, or executions of another cluster node), so the cache keeps at most
+ * {@code maxEntries} and drops the least recently used beyond that.
+ */
+class JobParameterValuesCache {
+
+    // Access ordered, guarded by this
+    private final LinkedHashMap<Long, Map<String, Object>> valuesByExecutionId;
+
+    JobParameterValuesCache(int maxEntries) {
+        this.valuesByExecutionId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<String, Object>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    Map<String, Object> get(JobExecution jobExecution) {
+        Long executionId = jobExecution.getId();
+        if (executionId != null) {
+            synchronized (this) {
+                Map<String, Object> values = valuesByExecutionId.get(executionId);
+                if (values != null) {
+                    return values;
+                }
+            }
+        }
+        Map<String, Object> values = convert(jobExecution.getJobParameters().getParameters());
+        if (executionId != null && jobExecution.isRunning()) {
+            synchronized (this) {
+                Map<String, Object> existing = valuesByExecutionId.putIfAbsent(executionId, values);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+        return values;
+    }
+
+    synchronized void evict(Long executionId) {
+        if (executionId != null) {
+            valuesByExecutionId.remove(executionId);
+        }
+    }
+
+    synchronized int size() {
+        return valuesByExecutionId.size();
+    }
+
+    private static Map<String, Object> convert(Map<String, JobParameter<?>> parameters) {
+        if (parameters.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // Sized so the map never rehashes
+        Map<String, Object> values = new HashMap<>((int) (parameters.size() / 0.75f) + 1);
+        for (Map.Entry<String, JobParameter<?>> entry : parameters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getValue());
+        }
+        return Collections.unmodifiableMap(values);
+    }
+}
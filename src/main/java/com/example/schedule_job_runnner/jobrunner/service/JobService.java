@@ -1,8 +1,22 @@
 package com.example.schedule_job_runnner.jobrunner.service;
 
+import com.example.schedule_job_runnner.jobrunner.config.JobLaunchProperties;
 import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.BulkLaunchResultDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.JobExecutionPageDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.LaunchQueueDTO;
+import com.example.schedule_job_runnner.jobrunner.launch.BulkLaunchItem;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchExecutor;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchRejectedException;
+import com.example.schedule_job_runnner.jobrunner.repository.JobExecutionBatchWriter;
+import com.example.schedule_job_runnner.jobrunner.repository.JobExecutionHistoryRepository;
+import com.example.schedule_job_runnner.jobrunner.retention.ExecutionArchive;
+import com.example.schedule_job_runnner.jobrunner.stream.ExecutionUpdateHub;
+import com.example.schedule_job_runnner.jobrunner.stream.SubscriptionFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
@@ -13,135 +27,479 @@ import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.NoSuchJobException;
 import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class JobService {
 
+    private static final int MAX_CACHED_PARAMETER_SETS = 10_000;
+    // Across all jobs
+    private static final int MAX_IDEMPOTENCY_KEYS = 10_000;
+    private static final Duration IDEMPOTENCY_KEY_TTL = Duration.ofHours(1);
+
+    // Stored with the launch so duplicates can also be found in the repository
+    public static final String IDEMPOTENCY_KEY_PARAMETER = "idempotencyKey";
+
     private final JobLauncher jobLauncher;
     private final JobRegistry jobRegistry;
     private final JobExplorer jobExplorer;
-    private final Sinks.Many<BatchJobExecutionInfoDTO> jobExecutionSink = Sinks.many().replay().latestOrDefault(null);
+    private final JobExecutionHistoryRepository historyRepository;
+    private final JdbcOffloader jdbcOffloader;
+    private final LiveExecutionIndex liveExecutions;
+    private final ExecutionUpdateHub executionUpdateHub;
+    private final JobLaunchExecutor launchExecutor;
+    private final JobLaunchProperties launchProperties;
+    private final JobExecutionBatchWriter batchWriter;
+    private final JobRepository jobRepository;
+    private final ExecutionArchive executionArchive;
+
+    // Parameters of running executions, converted once instead of on every update
+    private final JobParameterValuesCache parameterValues = new JobParameterValuesCache(MAX_CACHED_PARAMETER_SETS);
+    private final IdempotencyKeyCache idempotencyKeys = new IdempotencyKeyCache(MAX_IDEMPOTENCY_KEYS, IDEMPOTENCY_KEY_TTL);
+    private final LongAdder idempotencyHits = new LongAdder();
+    private final LongAdder idempotencyRepositoryHits = new LongAdder();
+    private final LongAdder idempotencyMisses = new LongAdder();
+    private final LongAdder bulkBatchFallbacks = new LongAdder();
+    private final LongAdder bulkBatchFailures = new LongAdder();
 
     public BatchJobExecutionInfoDTO launchJob(String springBatchJobName, Map<String, Object> jobParametersMap) throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException, NoSuchJobException {
         log.info("Attempting to launch Spring Batch job: {} with parameters: {}", springBatchJobName, jobParametersMap);
+        return launchJob(springBatchJobName, buildJobParameters(jobParametersMap));
+    }
+
+    /**
+     * Launches with parameters that are already converted, e.g. ones read back from the cluster launch queue.
+     */
+    public BatchJobExecutionInfoDTO launchJob(String springBatchJobName, JobParameters jobParameters) throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException, NoSuchJobException {
         try {
             org.springframework.batch.core.Job batchJob = jobRegistry.getJob(springBatchJobName);
 
-            JobParametersBuilder paramsBuilder = new JobParametersBuilder(jobExplorer);
-            if (jobParametersMap != null) {
-                jobParametersMap.forEach((key, value) -> {
-                    if (value instanceof String) {
-                        paramsBuilder.addString(key, (String) value);
-                    } else if (value instanceof Long) {
-                        paramsBuilder.addLong(key, (Long) value);
-                    } else if (value instanceof Double) {
-                        paramsBuilder.addDouble(key, (Double) value);
-                    } else if (value instanceof java.util.Date) {
-                        paramsBuilder.addDate(key, (java.util.Date) value);
-                    } else if (value instanceof LocalDateTime) { 
-                        paramsBuilder.addDate(key, java.util.Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant()));
-                    }
-                });
-            }
-            
-            if (jobParametersMap != null && !jobParametersMap.containsKey("launchTime")) {
-                 paramsBuilder.addLong("launchTime", System.currentTimeMillis());
-            } else if (jobParametersMap == null) {
-                 paramsBuilder.addLong("launchTime", System.currentTimeMillis());
-            }
-
-            JobParameters jobParameters = paramsBuilder.toJobParameters();
-
             JobExecution jobExecution = jobLauncher.run(batchJob, jobParameters);
             BatchJobExecutionInfoDTO dto = mapToDTO(jobExecution);
-            jobExecutionSink.tryEmitNext(dto);
+            liveExecutions.addIfAbsent(dto);
+            if (!jobExecution.isRunning()) {
+                // The job may already have finished (or been rejected) on its worker thread
+                liveExecutions.remove(jobExecution.getId());
+                parameterValues.evict(jobExecution.getId());
+            }
+            executionUpdateHub.publish(dto);
             log.info("Successfully launched job '{}', executionId: {}. Initial DTO emitted.", springBatchJobName, jobExecution.getId());
             return dto;
 
         } catch (NoSuchJobException e) {
             log.error("Spring Batch Job with name '{}' not found in JobRegistry.", springBatchJobName, e);
             throw e;
+        } catch (JobLaunchRejectedException e) {
+            log.warn("Launch of Spring Batch Job '{}' rejected: {}", springBatchJobName, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Error launching Spring Batch Job '{}'.", springBatchJobName, e);
             throw e;
         }
     }
 
-    public Flux<BatchJobExecutionInfoDTO> getJobExecutionUpdates() {
-        return jobExecutionSink.asFlux().filter(java.util.Objects::nonNull).share();
+    /**
+     * Launches for an idempotency key the caller has just reserved: from the repository if the key was
+     * launched before it left the cache, otherwise as a new launch carrying the key. Completes the
+     * reservation either way, releasing the key on failure so the client can retry with it.
+     */
+    private BatchJobExecutionInfoDTO launchReserved(String springBatchJobName, Map<String, Object> jobParametersMap, String idempotencyKey,
+                                                    CompletableFuture<BatchJobExecutionInfoDTO> reservation) throws JobInstanceAlreadyCompleteException, JobExecutionAlreadyRunningException, JobParametersInvalidException, JobRestartException, NoSuchJobException {
+        idempotencyMisses.increment();
+        try {
+            BatchJobExecutionInfoDTO dto = historyRepository.findLatestExecutionByParameter(
+                    springBatchJobName, IDEMPOTENCY_KEY_PARAMETER, idempotencyKey);
+            if (dto != null) {
+                idempotencyRepositoryHits.increment();
+                log.info("Duplicate launch of job '{}' with idempotency key '{}' found in the repository, execution {}",
+                        springBatchJobName, idempotencyKey, dto.getExecutionId());
+            } else {
+                Map<String, Object> keyedParameters = jobParametersMap != null ? new HashMap<>(jobParametersMap) : new HashMap<>();
+                keyedParameters.put(IDEMPOTENCY_KEY_PARAMETER, idempotencyKey);
+                dto = launchJob(springBatchJobName, keyedParameters);
+            }
+            reservation.complete(dto);
+            return dto;
+        } catch (Exception | Error e) {
+            idempotencyKeys.release(springBatchJobName, idempotencyKey, reservation);
+            reservation.completeExceptionally(e);
+            throw e;
+        }
     }
 
-    public List<BatchJobExecutionInfoDTO> getRunningJobExecutions(String jobName) {
-        Set<JobExecution> executions = jobExplorer.findRunningJobExecutions(jobName);
-        return executions.stream().map(this::mapToDTO).collect(Collectors.toList());
+    public Flux<ServerSentEvent<Object>> getJobExecutionUpdates(SubscriptionFilter filter) {
+        return executionUpdateHub.subscribe(filter);
     }
 
-    public List<BatchJobExecutionInfoDTO> getRecentJobExecutionsForJob(String jobName, int count) {
-        // Get ALL job instance IDs for the job name
-        List<Long> jobInstanceIds = jobExplorer.getJobInstances(jobName, 0, Integer.MAX_VALUE) // Get all instances
-                .stream()
-                .map(jobInstance -> jobInstance.getInstanceId())
-                .collect(Collectors.toList());
+    public JobParameters buildJobParameters(Map<String, Object> jobParametersMap) {
+        JobParametersBuilder paramsBuilder = new JobParametersBuilder(jobExplorer);
+        if (jobParametersMap != null) {
+            jobParametersMap.forEach((key, value) -> {
+                if (value instanceof String) {
+                    paramsBuilder.addString(key, (String) value);
+                } else if (value instanceof Long) {
+                    paramsBuilder.addLong(key, (Long) value);
+                } else if (value instanceof Double) {
+                    paramsBuilder.addDouble(key, (Double) value);
+                } else if (value instanceof java.util.Date) {
+                    paramsBuilder.addDate(key, (java.util.Date) value);
+                } else if (value instanceof LocalDateTime) { 
+                    paramsBuilder.addDate(key, java.util.Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant()));
+                }
+            });
+        }
+        
+        if (jobParametersMap != null && !jobParametersMap.containsKey("launchTime")) {
+             paramsBuilder.addLong("launchTime", System.currentTimeMillis());
+        } else if (jobParametersMap == null) {
+             paramsBuilder.addLong("launchTime", System.currentTimeMillis());
+        }
 
-        // Fetch all executions for these instances
-        return jobInstanceIds.stream()
-            .map(instanceId -> jobExplorer.getJobExecutions(jobExplorer.getJobInstance(instanceId))) // Get executions per instance
-            .flatMap(List::stream) // Flatten the list of lists of executions
-            .sorted((e1, e2) -> { // Sort all executions by creation time descending
-                if (e1.getCreateTime() == null && e2.getCreateTime() == null) return 0;
-                if (e1.getCreateTime() == null) return 1; 
-                if (e2.getCreateTime() == null) return -1; 
-                return e2.getCreateTime().compareTo(e1.getCreateTime());
-            })
-            .limit(count) // Limit to the requested count AFTER sorting all executions
-            .map(this::mapToDTO)
-            .collect(Collectors.toList());
+        return paramsBuilder.toJobParameters();
     }
 
-    public BatchJobExecutionInfoDTO getJobExecutionById(Long executionId) {
-        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
-        return jobExecution != null ? mapToDTO(jobExecution) : null;
+    /**
+     * Launches on the JDBC scheduler; the launcher writes the job instance and execution before returning.
+     */
+    public Mono<BatchJobExecutionInfoDTO> launchJobAsync(String springBatchJobName, Map<String, Object> jobParametersMap) {
+        return jdbcOffloader.mono("launch", () -> launchJob(springBatchJobName, jobParametersMap));
+    }
+
+    /**
+     * As above, once per idempotency key and job: a repeated key returns the execution of the first
+     * launch, from memory while the key is cached and from the repository after that. A duplicate of a
+     * launch still in progress waits for its result without holding a thread, and launches itself if
+     * the original fails.
+     */
+    public Mono<BatchJobExecutionInfoDTO> launchJobAsync(String springBatchJobName, Map<String, Object> jobParametersMap, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return launchJobAsync(springBatchJobName, jobParametersMap);
+        }
+        return Mono.defer(() -> {
+            CompletableFuture<BatchJobExecutionInfoDTO> reservation = new CompletableFuture<>();
+            CompletableFuture<BatchJobExecutionInfoDTO> original = idempotencyKeys.reserve(springBatchJobName, idempotencyKey, reservation);
+            if (original != null) {
+                // Not cancelled with this subscriber: other duplicates may be waiting on the same launch
+                return Mono.fromFuture(original, true)
+                        .doOnNext(dto -> {
+                            idempotencyHits.increment();
+                            log.info("Duplicate launch of job '{}' with idempotency key '{}', returning execution {}",
+                                    springBatchJobName, idempotencyKey, dto.getExecutionId());
+                        })
+                        // The original launch failed and released the key; this request launches instead
+                        .onErrorResume(e -> launchJobAsync(springBatchJobName, jobParametersMap, idempotencyKey));
+            }
+            // Runs to the end even if this subscriber goes away, so the reservation is always completed
+            jdbcOffloader.mono("launch", () -> launchReserved(springBatchJobName, jobParametersMap, idempotencyKey, reservation))
+                    .subscribe(dto -> { }, e -> {
+                        // Rejected before the call ran, e.g. by a saturated JDBC scheduler
+                        if (!reservation.isDone()) {
+                            idempotencyKeys.release(springBatchJobName, idempotencyKey, reservation);
+                            reservation.completeExceptionally(e);
+                        }
+                    });
+            return Mono.fromFuture(reservation, true);
+        });
+    }
+
+    /**
+     * Duplicates answered from the idempotency key cache.
+     */
+    public long getIdempotencyHitCount() {
+        return idempotencyHits.sum();
+    }
+
+    /**
+     * Keys not in the cache, whether or not the repository then had a launch for them.
+     */
+    public long getIdempotencyMissCount() {
+        return idempotencyMisses.sum();
+    }
+
+    public long getIdempotencyRepositoryHitCount() {
+        return idempotencyRepositoryHits.sum();
+    }
+
+    public int getIdempotencyKeyCount() {
+        return idempotencyKeys.size();
+    }
+
+    /**
+     * Bulk launch chunks whose batched insert hit an existing job instance and were launched one by one.
+     */
+    public long getBulkBatchFallbackCount() {
+        return bulkBatchFallbacks.sum();
+    }
+
+    /**
+     * Bulk launch chunks whose batched insert failed; their items are answered FAILED.
+     */
+    public long getBulkBatchFailureCount() {
+        return bulkBatchFailures.sum();
+    }
+
+    /**
+     * Launches many jobs at once. Items are admitted, persisted and started a chunk at a time, one
+     * repository transaction per chunk, and their results are emitted as soon as their chunk is accepted.
+     */
+    public Flux<BulkLaunchResultDTO> launchJobs(List<BulkLaunchItem> items) {
+        int chunkSize = Math.max(1, launchProperties.getBulkChunkSize());
+        return Flux.range(0, (items.size() + chunkSize - 1) / chunkSize)
+                .concatMap(chunk -> {
+                    int from = chunk * chunkSize;
+                    List<BulkLaunchItem> slice = items.subList(from, Math.min(items.size(), from + chunkSize));
+                    return jdbcOffloader.flux("bulkLaunch", () -> launchChunk(slice, from));
+                });
+    }
+
+    private List<BulkLaunchResultDTO> launchChunk(List<BulkLaunchItem> items, int firstIndex) {
+        BulkLaunchResultDTO[] results = new BulkLaunchResultDTO[items.size()];
+        List<Integer> admitted = new ArrayList<>(items.size());
+        List<org.springframework.batch.core.Job> jobs = new ArrayList<>(items.size());
+        List<JobLaunchExecutor.LaunchTicket> tickets = new ArrayList<>(items.size());
+        List<JobExecutionBatchWriter.NewExecution> newExecutions = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            BulkLaunchItem item = items.get(i);
+            try {
+                org.springframework.batch.core.Job batchJob = jobRegistry.getJob(item.jobName());
+                JobParameters jobParameters = buildJobParameters(item.parameters());
+                batchJob.getJobParametersValidator().validate(jobParameters);
+                JobLaunchExecutor.LaunchTicket ticket = launchExecutor.admit(batchJob.getName(), jobParameters);
+                admitted.add(i);
+                jobs.add(batchJob);
+                tickets.add(ticket);
+                newExecutions.add(new JobExecutionBatchWriter.NewExecution(batchJob.getName(), jobParameters));
+            } catch (JobLaunchRejectedException e) {
+                results[i] = bulkResult(firstIndex + i, item, BulkLaunchResultDTO.REJECTED, null, e.getMessage());
+            } catch (NoSuchJobException | JobParametersInvalidException e) {
+                results[i] = bulkResult(firstIndex + i, item, BulkLaunchResultDTO.FAILED, null, e.getMessage());
+            }
+        }
+        if (newExecutions.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        List<JobExecution> executions;
+        try {
+            executions = batchWriter.createJobExecutions(newExecutions);
+        } catch (DuplicateKeyException e) {
+            // An existing instance with the same identifying parameters; the launcher handles those
+            tickets.forEach(launchExecutor::release);
+            bulkBatchFallbacks.increment();
+            log.warn("Batched creation of {} executions hit an existing job instance, launching them one by one: {}",
+                    newExecutions.size(), e.getMessage());
+            for (int position : admitted) {
+                results[position] = launchOne(firstIndex + position, items.get(position));
+            }
+            return Arrays.asList(results);
+        } catch (RuntimeException e) {
+            tickets.forEach(launchExecutor::release);
+            bulkBatchFailures.increment();
+            log.error("Batched creation of {} executions failed", newExecutions.size(), e);
+            for (int position : admitted) {
+                results[position] = bulkResult(firstIndex + position, items.get(position), BulkLaunchResultDTO.FAILED, null,
+                        "Batched creation failed: " + e.getMessage());
+            }
+            return Arrays.asList(results);
+        }
+
+        for (int k = 0; k < executions.size(); k++) {
+            int position = admitted.get(k);
+            BulkLaunchItem item = items.get(position);
+            JobExecution jobExecution = executions.get(k);
+            org.springframework.batch.core.Job batchJob = jobs.get(k);
+            BatchJobExecutionInfoDTO dto = mapToDTO(jobExecution);
+            liveExecutions.addIfAbsent(dto);
+            executionUpdateHub.publish(dto);
+            try {
+                launchExecutor.execute(tickets.get(k), () -> batchJob.execute(jobExecution));
+                results[position] = bulkResult(firstIndex + position, item, BulkLaunchResultDTO.ACCEPTED, jobExecution.getId(), null);
+            } catch (TaskRejectedException e) {
+                // Same handling as TaskExecutorJobLauncher when its executor refuses the job
+                jobExecution.upgradeStatus(BatchStatus.FAILED);
+                jobExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(e));
+                jobRepository.update(jobExecution);
+                processJobExecutionUpdate(jobExecution);
+                results[position] = bulkResult(firstIndex + position, item, BulkLaunchResultDTO.FAILED, jobExecution.getId(), e.getMessage());
+            }
+        }
+        log.info("Bulk launch accepted {} of {} items starting at index {}", executions.size(), items.size(), firstIndex);
+        return Arrays.asList(results);
+    }
+
+    private BulkLaunchResultDTO launchOne(int index, BulkLaunchItem item) {
+        try {
+            BatchJobExecutionInfoDTO dto = launchJob(item.jobName(), item.parameters());
+            return bulkResult(index, item, BulkLaunchResultDTO.ACCEPTED, dto.getExecutionId(), null);
+        } catch (JobLaunchRejectedException e) {
+            return bulkResult(index, item, BulkLaunchResultDTO.REJECTED, null, e.getMessage());
+        } catch (Exception e) {
+            return bulkResult(index, item, BulkLaunchResultDTO.FAILED, null, e.getMessage());
+        }
+    }
+
+    private static BulkLaunchResultDTO bulkResult(int index, BulkLaunchItem item, String result, Long executionId, String message) {
+        return BulkLaunchResultDTO.builder()
+                .index(index)
+                .jobName(item.jobName())
+                .result(result)
+                .executionId(executionId)
+                .message(message)
+                .build();
+    }
+
+    public LaunchQueueDTO getLaunchQueue() {
+        return launchExecutor.getQueueSnapshot();
+    }
+
+    public Flux<BatchJobExecutionInfoDTO> getRunningJobExecutions(String jobName) {
+        return jdbcOffloader.flux("findRunningJobExecutions", () -> {
+            Set<JobExecution> executions = jobExplorer.findRunningJobExecutions(jobName);
+            List<BatchJobExecutionInfoDTO> dtos = new ArrayList<>(executions.size());
+            for (JobExecution jobExecution : executions) {
+                dtos.add(mapToDTO(jobExecution));
+            }
+            return dtos;
+        });
+    }
+
+    public Flux<BatchJobExecutionInfoDTO> getRecentJobExecutionsForJob(String jobName, int count) {
+        return jdbcOffloader.flux("findRecentExecutions",
+                () -> findExecutions(jobName, null, null, null, null, count));
+    }
+
+    public Mono<JobExecutionPageDTO> getJobExecutionHistory(String jobName, Set<BatchStatus> statuses,
+                                                            LocalDateTime from, LocalDateTime to, Long cursor, int limit) {
+        return jdbcOffloader.mono("findExecutionHistory", () -> {
+            // Fetch one extra row to know whether an older page exists
+            List<BatchJobExecutionInfoDTO> executions = findExecutions(jobName, statuses, from, to, cursor, limit + 1);
+            Long nextCursor = null;
+            if (executions.size() > limit) {
+                executions = executions.subList(0, limit);
+                nextCursor = executions.get(limit - 1).getExecutionId();
+            }
+            return JobExecutionPageDTO.builder()
+                    .executions(executions)
+                    .nextCursor(nextCursor)
+                    .build();
+        });
+    }
+
+    public Mono<BatchJobExecutionInfoDTO> getJobExecutionById(Long executionId) {
+        return jdbcOffloader.mono("getJobExecution", () -> {
+            JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+            return jobExecution != null ? mapToDTO(jobExecution) : executionArchive.findExecution(executionId);
+        });
+    }
+
+    /**
+     * History from the repository, completed from the archive with executions removed by retention.
+     */
+    private List<BatchJobExecutionInfoDTO> findExecutions(String jobName, Set<BatchStatus> statuses,
+                                                          LocalDateTime from, LocalDateTime to, Long cursor, int limit) {
+        List<BatchJobExecutionInfoDTO> executions = historyRepository.findExecutions(jobName, statuses, from, to, cursor, limit);
+        // A full page needs the archive only if it holds anything newer than the page's oldest execution
+        if (executions.size() >= limit
+                && !executionArchive.hasExecutionsAbove(jobName, executions.get(executions.size() - 1).getExecutionId())) {
+            return executions;
+        }
+        List<BatchJobExecutionInfoDTO> archived = executionArchive.findExecutions(jobName, statuses, from, to, cursor, limit);
+        if (archived.isEmpty()) {
+            return executions;
+        }
+        // Both lists are newest first; an execution in both (archived, delete not yet committed) comes from the repository
+        List<BatchJobExecutionInfoDTO> merged = new ArrayList<>(Math.min(limit, executions.size() + archived.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < executions.size() || j < archived.size())) {
+            if (j >= archived.size()
+                    || (i < executions.size() && executions.get(i).getExecutionId() >= archived.get(j).getExecutionId())) {
+                BatchJobExecutionInfoDTO execution = executions.get(i++);
+                if (j < archived.size() && archived.get(j).getExecutionId().equals(execution.getExecutionId())) {
+                    j++;
+                }
+                merged.add(execution);
+            } else {
+                merged.add(archived.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Currently running executions of all jobs, most recently started first, served from memory.
+     */
+    public List<BatchJobExecutionInfoDTO> getDashboardSnapshot() {
+        return liveExecutions.snapshot();
+    }
+
+    /**
+     * Seeds the live execution index from the repository so it is correct after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildLiveExecutionIndex() {
+        liveExecutions.clear();
+        for (String jobName : jobRegistry.getJobNames()) {
+            try {
+                for (JobExecution jobExecution : jobExplorer.findRunningJobExecutions(jobName)) {
+                    liveExecutions.update(mapToDTO(jobExecution), true);
+                }
+            } catch (Exception e) {
+                log.warn("Could not load running executions for {}: {}", jobName, e.getMessage());
+            }
+        }
+        log.info("Live execution index rebuilt with {} running executions", liveExecutions.size());
     }
 
     public void processJobExecutionUpdate(JobExecution jobExecution) {
         if (jobExecution == null) return;
         BatchJobExecutionInfoDTO dto = mapToDTO(jobExecution);
-        jobExecutionSink.tryEmitNext(dto);
-        log.info("Job execution update processed and emitted: executionId={}, status={}", dto.getExecutionId(), dto.getStatus());
+        liveExecutions.update(dto, jobExecution.isRunning());
+        if (!jobExecution.isRunning()) {
+            parameterValues.evict(jobExecution.getId());
+        }
+        executionUpdateHub.publish(dto);
+        log.debug("Job execution update processed and emitted: executionId={}, status={}", dto.getExecutionId(), dto.getStatus());
     }
 
-    private BatchJobExecutionInfoDTO mapToDTO(JobExecution jobExecution) {
+    // Package-private for the mapping benchmarks
+    BatchJobExecutionInfoDTO mapToDTO(JobExecution jobExecution) {
         if (jobExecution == null) return null;
 
-        Map<String, Object> jobParams = jobExecution.getJobParameters().getParameters().entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getValue()));
-        
-        LocalDateTime startTimeDate = jobExecution.getStartTime();
-        LocalDateTime endTimeDate = jobExecution.getEndTime();
-
-        return BatchJobExecutionInfoDTO.builder()
-                .executionId(jobExecution.getId())
-                .jobInstanceId(jobExecution.getJobInstance().getInstanceId())
-                .jobName(jobExecution.getJobInstance().getJobName())
-                .status(jobExecution.getStatus().toString())
-                .startTime(startTimeDate)
-                .endTime(endTimeDate)
-                .exitCode(jobExecution.getExitStatus() != null ? jobExecution.getExitStatus().getExitCode() : null)
-                .exitDescription(jobExecution.getExitStatus() != null ? jobExecution.getExitStatus().getExitDescription() : null)
-                .jobParameters(jobParams)
-                .build();
+        ExitStatus exitStatus = jobExecution.getExitStatus();
+        return new BatchJobExecutionInfoDTO(
+                jobExecution.getId(),
+                jobExecution.getJobInstance().getInstanceId(),
+                jobExecution.getJobInstance().getJobName(),
+                jobExecution.getStatus().toString(),
+                jobExecution.getStartTime(),
+                jobExecution.getEndTime(),
+                exitStatus != null ? exitStatus.getExitCode() : null,
+                exitStatus != null ? exitStatus.getExitDescription() : null,
+                parameterValues.get(jobExecution));
     }
-} 
\ No newline at end of file
+}
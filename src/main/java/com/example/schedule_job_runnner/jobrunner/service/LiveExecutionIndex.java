@@ -0,0 +1,75 @@
+package com.example.schedule_job_runnner.jobrunner.service;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the executions that are currently starting, running or stopping, keyed by
+ * execution id. It is fed by {@link JobService} from launches and listener callbacks, so the dashboard
+ * snapshot never has to query the job repository.
+ */
+@Component
+public class LiveExecutionIndex {
+
+    // Most recent first, executions that have not started yet last
+    private static final Comparator<BatchJobExecutionInfoDTO> BY_START_TIME_DESC = Comparator.comparing(
+            BatchJobExecutionInfoDTO::getStartTime, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed();
+
+    private final ConcurrentHashMap<Long, BatchJobExecutionInfoDTO> liveExecutions = new ConcurrentHashMap<>();
+
+    /**
+     * Records the latest state of a live execution, or drops it once it is no longer running.
+     */
+    public void update(BatchJobExecutionInfoDTO execution, boolean running) {
+        if (execution == null || execution.getExecutionId() == null) {
+            return;
+        }
+        if (running) {
+            liveExecutions.put(execution.getExecutionId(), execution);
+        } else {
+            liveExecutions.remove(execution.getExecutionId());
+        }
+    }
+
+    /**
+     * Adds the execution unless a newer state from the listener is already indexed.
+     */
+    public void addIfAbsent(BatchJobExecutionInfoDTO execution) {
+        if (execution != null && execution.getExecutionId() != null) {
+            liveExecutions.putIfAbsent(execution.getExecutionId(), execution);
+        }
+    }
+
+    public void remove(Long executionId) {
+        liveExecutions.remove(executionId);
+    }
+
+    public BatchJobExecutionInfoDTO get(Long executionId) {
+        return liveExecutions.get(executionId);
+    }
+
+    public Collection<BatchJobExecutionInfoDTO> values() {
+        return liveExecutions.values();
+    }
+
+    public List<BatchJobExecutionInfoDTO> snapshot() {
+        List<BatchJobExecutionInfoDTO> snapshot = new ArrayList<>(liveExecutions.values());
+        snapshot.sort(BY_START_TIME_DESC);
+        return snapshot;
+    }
+
+    public int size() {
+        return liveExecutions.size();
+    }
+
+    public void clear() {
+        liveExecutions.clear();
+    }
+}
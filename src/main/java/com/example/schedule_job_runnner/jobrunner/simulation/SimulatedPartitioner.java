@@ -0,0 +1,35 @@
+package com.example.schedule_job_runnner.jobrunner.simulation;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a simulated step into a fixed number of identical partitions. The count comes from the
+ * launch (the {@code partitionCount} job parameter), so the grid size passed in by the step is ignored.
+ */
+public class SimulatedPartitioner implements Partitioner {
+
+    public static final String PARTITION_INDEX = "partitionIndex";
+    public static final String PARTITION_COUNT = "partitionCount";
+
+    private final int partitionCount;
+
+    public SimulatedPartitioner(int partitionCount) {
+        this.partitionCount = Math.max(1, partitionCount);
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < partitionCount; i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putInt(PARTITION_INDEX, i);
+            context.putInt(PARTITION_COUNT, partitionCount);
+            partitions.put("partition" + i, context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.schedule_job_runnner.jobrunner.simulation;
+
+import com.example.schedule_job_runnner.jobrunner.stop.ExecutionThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tasklet used by the simulated jobs: optionally burns CPU and allocates memory, then waits for the
+ * configured duration and ends with the outcome of its job type (or a randomly drawn failure/stop).
+ * <p>
+ * The wait is a plain {@link Thread#sleep}, which on a virtual thread (launch mode {@code VIRTUAL})
+ * parks the execution without holding a carrier thread, so the number of concurrent simulated runs is
+ * bounded by the launch executor rather than by platform threads.
+ * <p>
+ * With a {@link ProgressListener} the work is done in ten slices and progress is reported after each,
+ * which is how partitioned runs show their parallelism on the stream.
+ * <p>
+ * The work is registered with {@link ExecutionThreads}, so stopping the execution interrupts the wait and
+ * the step ends STOPPED with the progress it had reached.
+ */
+@Slf4j
+public class SimulatedTasklet implements Tasklet {
+
+    public enum Outcome {
+        COMPLETE,
+        FAIL,
+        STOP
+    }
+
+    /**
+     * Receives the progress of a run: 0% when it starts, after every slice, and once more with the outcome.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(StepExecution stepExecution, int percentComplete, BatchStatus status);
+    }
+
+    private static final int ALLOCATION_CHUNK_BYTES = 64 * 1024;
+    private static final int PROGRESS_SLICES = 10;
+    private static final AtomicBoolean PLATFORM_THREAD_WARNED = new AtomicBoolean();
+
+    private final Outcome outcome;
+    private final ExecutionThreads executionThreads; // null when the work cannot be interrupted by a stop
+    private final ProgressListener progressListener; // null when progress is not reported
+
+    // Keeps the CPU burn and allocation loops from being optimised away
+    private volatile long sink;
+
+    public SimulatedTasklet(Outcome outcome, ExecutionThreads executionThreads) {
+        this(outcome, executionThreads, null);
+    }
+
+    public SimulatedTasklet(Outcome outcome, ExecutionThreads executionThreads, ProgressListener progressListener) {
+        this.outcome = outcome;
+        this.executionThreads = executionThreads;
+        this.progressListener = progressListener;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        String jobName = chunkContext.getStepContext().getJobName();
+        long executionId = chunkContext.getStepContext().getStepExecution().getJobExecutionId();
+        Map<String, Object> jobParameters = chunkContext.getStepContext().getJobParameters();
+        Object customJobName = jobParameters.get("customJobName");
+        SimulationProfile profile = SimulationProfile.from(jobParameters);
+
+        log.debug("Simulated tasklet for job '{}', execution ID: {}, custom name: '{}' starting ({}, {})",
+                jobName, executionId, customJobName, outcome, profile);
+        StepExecution stepExecution = contribution.getStepExecution();
+        // Partitions run on the dedicated partition pool on purpose
+        boolean partition = stepExecution.getExecutionContext().containsKey(SimulatedPartitioner.PARTITION_INDEX);
+        if (!partition && !Thread.currentThread().isVirtual() && PLATFORM_THREAD_WARNED.compareAndSet(false, true)) {
+            log.warn("Simulated tasklets are running on platform threads; set jobrunner.launch.mode=VIRTUAL to simulate large numbers of concurrent runs");
+        }
+
+        int slices = progressListener != null ? PROGRESS_SLICES : 1;
+        int percentComplete = 0;
+        report(stepExecution, percentComplete, BatchStatus.STARTED);
+        allocate(profile.allocationBytes());
+        ExecutionThreads.Registration registration = executionThreads != null ? executionThreads.register(executionId) : null;
+        try {
+            for (int slice = 0; slice < slices; slice++) {
+                burnCpu(share(profile.cpuBurnMillis(), slice, slices));
+                Thread.sleep(share(profile.durationMillis(), slice, slices));
+                percentComplete = (slice + 1) * 100 / slices;
+                if (slice < slices - 1) {
+                    report(stepExecution, percentComplete, BatchStatus.STARTED);
+                }
+            }
+        } catch (InterruptedException e) {
+            // The interrupt is a stop request and is handled here by ending the step as STOPPED. It is not
+            // re-asserted, so the repository updates that follow on this thread are not interrupted too.
+            log.warn("Simulated tasklet for job '{}' (execution ID: {}) interrupted at {}%.", jobName, executionId, percentComplete);
+            stepExecution.getJobExecution().setStatus(BatchStatus.STOPPED);
+            contribution.setExitStatus(ExitStatus.STOPPED.addExitDescription(
+                    "Interrupted during simulated work at " + percentComplete + "%"));
+            report(stepExecution, percentComplete, BatchStatus.STOPPED);
+            return RepeatStatus.FINISHED;
+        } finally {
+            if (registration != null) {
+                registration.close();
+            }
+        }
+
+        Outcome result = outcome;
+        if (result == Outcome.COMPLETE) {
+            double draw = ThreadLocalRandom.current().nextDouble();
+            if (draw < profile.failureProbability()) {
+                result = Outcome.FAIL;
+            } else if (draw < profile.failureProbability() + profile.stopProbability()) {
+                result = Outcome.STOP;
+            }
+        }
+
+        switch (result) {
+            case FAIL -> {
+                log.debug("Simulated tasklet for job '{}', execution ID: {} simulating failure.", jobName, executionId);
+                report(stepExecution, percentComplete, BatchStatus.FAILED);
+                throw new RuntimeException("Simulated failure for job: " + customJobName);
+            }
+            case STOP -> {
+                log.debug("Simulated tasklet for job '{}', execution ID: {} simulating stop.", jobName, executionId);
+                stepExecution.getJobExecution().setStatus(BatchStatus.STOPPED);
+                contribution.setExitStatus(ExitStatus.STOPPED.addExitDescription("Simulated stop for job: " + customJobName));
+                report(stepExecution, percentComplete, BatchStatus.STOPPED);
+            }
+            case COMPLETE -> {
+                log.debug("Simulated tasklet for job '{}', execution ID: {} completed.", jobName, executionId);
+                report(stepExecution, percentComplete, BatchStatus.COMPLETED);
+            }
+        }
+        return RepeatStatus.FINISHED;
+    }
+
+    private void report(StepExecution stepExecution, int percentComplete, BatchStatus status) {
+        if (progressListener == null) {
+            return;
+        }
+        try {
+            progressListener.onProgress(stepExecution, percentComplete, status);
+        } catch (RuntimeException e) {
+            log.debug("Progress listener failed for step execution {}: {}", stepExecution.getId(), e.getMessage());
+        }
+    }
+
+    // The part of total that falls into the given slice, so the slices add up exactly
+    private static long share(long total, int slice, int slices) {
+        return total * (slice + 1) / slices - total * slice / slices;
+    }
+
+    private void burnCpu(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        long acc = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 10_000; i++) {
+                acc = acc * 31 + i;
+            }
+        }
+        sink = acc;
+    }
+
+    private void allocate(long bytes) {
+        long acc = 0;
+        for (long remaining = bytes; remaining > 0; remaining -= ALLOCATION_CHUNK_BYTES) {
+            byte[] chunk = new byte[(int) Math.min(remaining, ALLOCATION_CHUNK_BYTES)];
+            chunk[chunk.length - 1] = 1;
+            acc += chunk[chunk.length - 1];
+        }
+        sink = acc;
+    }
+}
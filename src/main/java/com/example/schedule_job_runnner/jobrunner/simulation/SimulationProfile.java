@@ -0,0 +1,38 @@
+package com.example.schedule_job_runnner.jobrunner.simulation;
+
+import java.util.Map;
+
+/**
+ * What a simulated tasklet does, read from the job parameters.
+ *
+ * @param durationMillis     how long the tasklet waits; {@code durationMillis} wins over {@code durationInSeconds}
+ * @param cpuBurnMillis      CPU time spent spinning before the wait
+ * @param allocationBytes    bytes allocated (and touched) before the wait
+ * @param failureProbability chance in [0, 1] that the run fails after the wait
+ * @param stopProbability    chance in [0, 1] that the run ends STOPPED after the wait
+ */
+public record SimulationProfile(long durationMillis, long cpuBurnMillis, long allocationBytes,
+                                double failureProbability, double stopProbability) {
+
+    static final long DEFAULT_DURATION_SECONDS = 5L;
+
+    public static SimulationProfile from(Map<String, Object> jobParameters) {
+        long durationMillis = jobParameters.get("durationMillis") instanceof Number millis
+                ? millis.longValue()
+                : asLong(jobParameters.get("durationInSeconds"), DEFAULT_DURATION_SECONDS) * 1000;
+        return new SimulationProfile(
+                Math.max(0, durationMillis),
+                Math.max(0, asLong(jobParameters.get("cpuBurnMillis"), 0)),
+                Math.max(0, asLong(jobParameters.get("allocationBytes"), 0)),
+                asProbability(jobParameters.get("failureProbability")),
+                asProbability(jobParameters.get("stopProbability")));
+    }
+
+    private static long asLong(Object value, long defaultValue) {
+        return value instanceof Number number ? number.longValue() : defaultValue;
+    }
+
+    private static double asProbability(Object value) {
+        return value instanceof Number number ? Math.min(1.0, Math.max(0.0, number.doubleValue())) : 0.0;
+    }
+}
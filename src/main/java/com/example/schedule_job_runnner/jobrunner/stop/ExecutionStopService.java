@@ -0,0 +1,182 @@
+package com.example.schedule_job_runnner.jobrunner.stop;
+
+import com.example.schedule_job_runnner.jobrunner.config.StopProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.ExecutionStopDTO;
+import com.example.schedule_job_runnner.jobrunner.service.JdbcOffloader;
+import com.example.schedule_job_runnner.jobrunner.stream.ExecutionUpdateHub;
+import com.example.schedule_job_runnner.jobrunner.stream.StreamEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobExecutionNotRunningException;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import org.springframework.batch.core.launch.NoSuchJobExecutionException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stops running executions on request.
+ * <p>
+ * A stop marks the execution STOPPING through the {@link JobOperator}, which steps notice at their next
+ * repository update (a chunk step at its next chunk boundary), and interrupts the threads registered in
+ * {@link ExecutionThreads}, so a tasklet that is waiting or sleeping ends at once with what it has done
+ * so far. The time from the request to the execution ending is recorded as
+ * {@code jobrunner.execution.stop.latency} and published on the stream as a {@code stop} event.
+ */
+@Slf4j
+@Service
+public class ExecutionStopService {
+
+    private record PendingStop(long requestedAtNanos, LocalDateTime requestedAt, String jobName,
+                               int interruptedThreads, CompletableFuture<ExecutionStopDTO> finished) {
+    }
+
+    private final JobOperator jobOperator;
+    private final JobExplorer jobExplorer;
+    private final JobRegistry jobRegistry;
+    private final ExecutionThreads executionThreads;
+    private final ExecutionUpdateHub executionUpdateHub;
+    private final JdbcOffloader jdbcOffloader;
+    private final StopProperties properties;
+    private final Timer stopLatency;
+
+    private final Map<Long, PendingStop> pendingStops = new ConcurrentHashMap<>();
+
+    public ExecutionStopService(JobOperator jobOperator, JobExplorer jobExplorer, JobRegistry jobRegistry,
+                                ExecutionThreads executionThreads, ExecutionUpdateHub executionUpdateHub,
+                                JdbcOffloader jdbcOffloader, StopProperties properties, MeterRegistry meterRegistry) {
+        this.jobOperator = jobOperator;
+        this.jobExplorer = jobExplorer;
+        this.jobRegistry = jobRegistry;
+        this.executionThreads = executionThreads;
+        this.executionUpdateHub = executionUpdateHub;
+        this.jdbcOffloader = jdbcOffloader;
+        this.properties = properties;
+        this.stopLatency = Timer.builder("jobrunner.execution.stop.latency")
+                .description("Time from a stop request to the execution ending")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the execution and waits up to {@code awaitMillis} for it to end. Completes with the final
+     * state, or with status STOPPING if it is still winding down.
+     */
+    public Mono<ExecutionStopDTO> stop(long executionId) {
+        return jdbcOffloader.mono("stop", () -> requestStop(executionId))
+                .flatMap(pending -> awaitStop(executionId, pending));
+    }
+
+    /**
+     * Stops every running execution of the job, results in no particular order.
+     */
+    public Flux<ExecutionStopDTO> stopAll(String jobName) {
+        return jdbcOffloader.flux("stop", () -> {
+                    if (!jobRegistry.getJobNames().contains(jobName)) {
+                        throw new NoSuchJobException("No job configuration with the name [" + jobName + "] was registered");
+                    }
+                    List<Long> executionIds = new ArrayList<>();
+                    for (JobExecution jobExecution : jobExplorer.findRunningJobExecutions(jobName)) {
+                        executionIds.add(jobExecution.getId());
+                    }
+                    return executionIds;
+                })
+                .flatMap(executionId -> stop(executionId)
+                        // Ended between the lookup and the stop
+                        .onErrorResume(JobExecutionNotRunningException.class, e -> Mono.empty()));
+    }
+
+    /**
+     * Called once an execution has ended; completes its stop request if there is one.
+     */
+    public void executionFinished(JobExecution jobExecution) {
+        PendingStop pending = pendingStops.remove(jobExecution.getId());
+        if (pending == null) {
+            return;
+        }
+        long latencyNanos = System.nanoTime() - pending.requestedAtNanos();
+        stopLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        ExecutionStopDTO dto = ExecutionStopDTO.builder()
+                .executionId(jobExecution.getId())
+                .jobName(pending.jobName())
+                .status(jobExecution.getStatus().toString())
+                .exitCode(jobExecution.getExitStatus().getExitCode())
+                .exitDescription(jobExecution.getExitStatus().getExitDescription())
+                .requestedAt(pending.requestedAt())
+                .interruptedThreads(pending.interruptedThreads())
+                .latencyMillis(TimeUnit.NANOSECONDS.toMillis(latencyNanos))
+                .build();
+        log.info("Execution {} of job '{}' ended {} {}ms after the stop request",
+                dto.getExecutionId(), dto.getJobName(), dto.getStatus(), dto.getLatencyMillis());
+        executionUpdateHub.publish(StreamEvent.stop(dto));
+        pending.finished().complete(dto);
+    }
+
+    private PendingStop requestStop(long executionId) throws NoSuchJobExecutionException, JobExecutionNotRunningException {
+        forgetStaleStops();
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null) {
+            throw new NoSuchJobExecutionException("No JobExecution found for id: [" + executionId + "]");
+        }
+        PendingStop existing = pendingStops.get(executionId);
+        if (existing != null) {
+            // Already stopping: interrupt again in case new work has started, and wait on the first request
+            executionThreads.interrupt(executionId);
+            return existing;
+        }
+        PendingStop pending = new PendingStop(System.nanoTime(), LocalDateTime.now(),
+                jobExecution.getJobInstance().getJobName(), 0, new CompletableFuture<>());
+        // Registered before the stop so an execution that ends right away still completes it
+        pendingStops.put(executionId, pending);
+        try {
+            jobOperator.stop(executionId);
+        } catch (NoSuchJobExecutionException | JobExecutionNotRunningException | RuntimeException e) {
+            pendingStops.remove(executionId, pending);
+            throw e;
+        }
+        int interrupted = executionThreads.interrupt(executionId);
+        PendingStop signalled = new PendingStop(pending.requestedAtNanos(), pending.requestedAt(), pending.jobName(),
+                interrupted, pending.finished());
+        // Unless executionFinished has already taken it
+        pendingStops.replace(executionId, pending, signalled);
+        log.info("Stop requested for execution {} of job '{}', {} threads interrupted",
+                executionId, pending.jobName(), interrupted);
+        return signalled;
+    }
+
+    private Mono<ExecutionStopDTO> awaitStop(long executionId, PendingStop pending) {
+        return Mono.fromFuture(pending.finished(), true)
+                .timeout(Duration.ofMillis(properties.getAwaitMillis()))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(ExecutionStopDTO.builder()
+                        .executionId(executionId)
+                        .jobName(pending.jobName())
+                        .status(BatchStatus.STOPPING.toString())
+                        .requestedAt(pending.requestedAt())
+                        .interruptedThreads(pending.interruptedThreads())
+                        .build()));
+    }
+
+    // Executions running on another cluster node end there, so their stops never complete here
+    private void forgetStaleStops() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(properties.getTrackMillis());
+        pendingStops.values().removeIf(pending -> pending.requestedAtNanos() - cutoff < 0);
+    }
+}
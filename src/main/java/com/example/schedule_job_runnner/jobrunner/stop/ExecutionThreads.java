@@ -0,0 +1,74 @@
+package com.example.schedule_job_runnner.jobrunner.stop;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The threads (platform or virtual) currently doing interruptible work for each execution.
+ * <p>
+ * Work registers around the part that may be interrupted, such as the wait of a simulated tasklet, and
+ * a stop interrupts exactly those threads. Registration and interruption are serialised per execution,
+ * so a thread that has closed its registration and gone back to its pool is never interrupted by a
+ * late stop.
+ */
+@Component
+public class ExecutionThreads {
+
+    /**
+     * Marks the end of the interruptible work. Clears an interrupt delivered by a stop that arrived after
+     * the work had already finished, so it cannot leak into the repository updates that follow.
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Worker {
+        private final Thread thread;
+        private boolean interrupted;
+
+        private Worker(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    private final Map<Long, List<Worker>> workers = new ConcurrentHashMap<>();
+
+    public Registration register(long executionId) {
+        Worker worker = new Worker(Thread.currentThread());
+        workers.compute(executionId, (id, list) -> {
+            List<Worker> registered = list != null ? list : new ArrayList<>(1);
+            registered.add(worker);
+            return registered;
+        });
+        return () -> workers.computeIfPresent(executionId, (id, list) -> {
+            list.remove(worker);
+            if (worker.interrupted) {
+                Thread.interrupted();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Interrupts every thread registered for the execution; returns how many were interrupted.
+     */
+    public int interrupt(long executionId) {
+        int[] count = new int[1];
+        workers.computeIfPresent(executionId, (id, list) -> {
+            for (Worker worker : list) {
+                if (!worker.interrupted) {
+                    worker.interrupted = true;
+                    worker.thread.interrupt();
+                    count[0]++;
+                }
+            }
+            return list;
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.schedule_job_runnner.jobrunner.stream;
+
+import com.example.schedule_job_runnner.jobrunner.config.StreamProperties;
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.service.LiveExecutionIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans execution updates out to SSE subscribers.
+ * <p>
+ * Subscribers are indexed by the most selective part of their filter (execution id, then job name),
+ * so publishing only visits subscribers that can match instead of every connection. Each subscriber
+ * has its own bounded buffer that keeps only the latest event per key; pending events are flushed
+ * once per coalescing window and only as far as the client has requested, so a slow client falls
+ * behind on intermediate states instead of queueing every update. When the buffer is full the
+ * configured {@link StreamProperties.OverflowStrategy} applies. The snapshot of live executions a new
+ * subscriber starts with is sent ahead of the buffer and is never cut by it.
+ */
+@Slf4j
+@Component
+public class ExecutionUpdateHub implements DisposableBean {
+
+    private final StreamProperties properties;
+    private final LiveExecutionIndex liveExecutions;
+
+    private final Set<Subscriber> wildcardSubscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> subscribersByJobName = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> subscribersByExecutionId = new ConcurrentHashMap<>();
+    private final Queue<Subscriber> dirtySubscribers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder deliveredEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder overflowDisconnects = new LongAdder();
+
+    private final Scheduler flushScheduler = Schedulers.newSingle("sse-flush", true);
+    private final Disposable flushTask;
+
+    public ExecutionUpdateHub(StreamProperties properties, LiveExecutionIndex liveExecutions) {
+        this.properties = properties;
+        this.liveExecutions = liveExecutions;
+        long window = properties.getCoalesceWindowMillis();
+        this.flushTask = window > 0
+                ? flushScheduler.schedulePeriodically(this::flushDirtySubscribers, window, window, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    public void publish(StreamEvent event) {
+        for (Subscriber subscriber : wildcardSubscribers) {
+            subscriber.offer(event);
+        }
+        if (event.jobName() != null) {
+            offerAll(subscribersByJobName.get(event.jobName()), event);
+        }
+        if (event.executionId() != null) {
+            offerAll(subscribersByExecutionId.get(event.executionId()), event);
+        }
+    }
+
+    public void publish(BatchJobExecutionInfoDTO execution) {
+        publish(StreamEvent.execution(execution));
+    }
+
+    private void offerAll(Set<Subscriber> subscribers, StreamEvent event) {
+        if (subscribers != null) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Opens a stream for one client. It starts with the matching live executions, then carries
+     * matching updates and periodic heartbeat comments.
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(SubscriptionFilter filter) {
+        Flux<ServerSentEvent<Object>> updates = Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(filter, sink);
+            register(subscriber);
+            sink.onRequest(n -> subscriber.drain());
+            sink.onDispose(() -> unregister(subscriber));
+            // Registered first so no update is missed
+            subscriber.offerSnapshot(liveExecutions.values());
+        });
+        if (properties.getHeartbeatSeconds() <= 0) {
+            return updates;
+        }
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(Duration.ofSeconds(properties.getHeartbeatSeconds()))
+                .map(tick -> ServerSentEvent.<Object>builder().comment("heartbeat").build())
+                .onBackpressureDrop();
+        return Flux.merge(updates, heartbeats);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getDeliveredEventCount() {
+        return deliveredEvents.sum();
+    }
+
+    /**
+     * Updates discarded because a subscriber's buffer was full (not counting updates superseded by a
+     * newer one for the same key, which is coalescing working as intended).
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    public long getOverflowDisconnectCount() {
+        return overflowDisconnects.sum();
+    }
+
+    private void register(Subscriber subscriber) {
+        subscriberCount.incrementAndGet();
+        SubscriptionFilter filter = subscriber.filter;
+        if (!filter.executionIds().isEmpty()) {
+            filter.executionIds().forEach(id -> subscribersByExecutionId.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        } else if (!filter.jobNames().isEmpty()) {
+            filter.jobNames().forEach(name -> subscribersByJobName.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        } else {
+            wildcardSubscribers.add(subscriber);
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriberCount.decrementAndGet();
+        SubscriptionFilter filter = subscriber.filter;
+        if (!filter.executionIds().isEmpty()) {
+            filter.executionIds().forEach(id -> subscribersByExecutionId.computeIfPresent(id, (k, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            }));
+        } else if (!filter.jobNames().isEmpty()) {
+            filter.jobNames().forEach(name -> subscribersByJobName.computeIfPresent(name, (k, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            }));
+        } else {
+            wildcardSubscribers.remove(subscriber);
+        }
+    }
+
+    private void flushDirtySubscribers() {
+        Subscriber subscriber;
+        while ((subscriber = dirtySubscribers.poll()) != null) {
+            subscriber.dirty.set(false);
+            subscriber.drain();
+        }
+    }
+
+    private static ServerSentEvent<Object> toServerSentEvent(StreamEvent event) {
+        ServerSentEvent.Builder<Object> builder = ServerSentEvent.builder(event.data());
+        if (event.type() != null) {
+            builder.event(event.type());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void destroy() {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+        flushScheduler.dispose();
+    }
+
+    private final class Subscriber {
+        private final SubscriptionFilter filter;
+        private final FluxSink<ServerSentEvent<Object>> sink;
+        // Live executions at subscription, sent before anything pending; guarded by this
+        private final ArrayDeque<StreamEvent> snapshot = new ArrayDeque<>();
+        // Insertion ordered, latest event per key; guarded by this
+        private final LinkedHashMap<String, StreamEvent> pending = new LinkedHashMap<>();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private Subscriber(SubscriptionFilter filter, FluxSink<ServerSentEvent<Object>> sink) {
+            this.filter = filter;
+            this.sink = sink;
+        }
+
+        /**
+         * Queues the initial state outside the bounded buffer; an execution that already has a newer
+         * pending update is left out.
+         */
+        synchronized void offerSnapshot(Collection<BatchJobExecutionInfoDTO> executions) {
+            for (BatchJobExecutionInfoDTO execution : executions) {
+                StreamEvent event = StreamEvent.execution(execution);
+                if (filter.matches(event) && !pending.containsKey(event.key())) {
+                    snapshot.addLast(event);
+                }
+            }
+            drain();
+        }
+
+        void offer(StreamEvent event) {
+            if (!filter.matches(event)) {
+                return;
+            }
+            synchronized (this) {
+                if (pending.remove(event.key()) == null && pending.size() >= Math.max(1, properties.getSubscriberBufferSize())) {
+                    switch (properties.getOverflowStrategy()) {
+                        case DROP_OLDEST -> {
+                            Iterator<StreamEvent> it = pending.values().iterator();
+                            it.next();
+                            it.remove();
+                            droppedEvents.increment();
+                        }
+                        case DROP_LATEST -> {
+                            droppedEvents.increment();
+                            return;
+                        }
+                        case DISCONNECT -> {
+                            droppedEvents.add(pending.size() + 1);
+                            overflowDisconnects.increment();
+                            pending.clear();
+                            sink.error(new IllegalStateException("Subscriber buffer overflow, reconnect to resume"));
+                            return;
+                        }
+                    }
+                }
+                pending.put(event.key(), event);
+            }
+            if (properties.getCoalesceWindowMillis() <= 0) {
+                drain();
+            } else if (dirty.compareAndSet(false, true)) {
+                dirtySubscribers.offer(this);
+            }
+        }
+
+        // Takes one event at a time rather than holding an iterator: sink.next may request more, which
+        // re-enters drain on the same thread
+        synchronized void drain() {
+            while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                StreamEvent event = snapshot.pollFirst();
+                if (event == null) {
+                    Map.Entry<String, StreamEvent> entry = pending.pollFirstEntry();
+                    if (entry == null) {
+                        return;
+                    }
+                    event = entry.getValue();
+                }
+                sink.next(toServerSentEvent(event));
+                deliveredEvents.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.schedule_job_runnner.jobrunner.stream;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.ExecutionStopDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.PartitionProgressDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowDTO;
+
+/**
+ * An update published to the SSE streams.
+ *
+ * @param type        SSE event name, null for plain execution updates so existing {@code onmessage} clients keep working
+ * @param key         coalescing key: pending events with the same key are replaced by the newest one
+ * @param jobName     used for subscriber filtering
+ * @param executionId used for subscriber filtering
+ * @param status      used for subscriber filtering
+ * @param data        the event payload
+ */
+public record StreamEvent(String type, String key, String jobName, Long executionId, String status, Object data) {
+
+    public static StreamEvent execution(BatchJobExecutionInfoDTO dto) {
+        return new StreamEvent(null, "execution:" + dto.getExecutionId(), dto.getJobName(), dto.getExecutionId(),
+                dto.getStatus(), dto);
+    }
+
+    public static StreamEvent partitionProgress(PartitionProgressDTO dto) {
+        return new StreamEvent("partition-progress", "partition:" + dto.getStepExecutionId(), dto.getJobName(),
+                dto.getExecutionId(), dto.getStatus(), dto);
+    }
+
+    public static StreamEvent stop(ExecutionStopDTO dto) {
+        return new StreamEvent("stop", "stop:" + dto.getExecutionId(), dto.getJobName(), dto.getExecutionId(),
+                dto.getStatus(), dto);
+    }
+
+    // Not tied to one job or execution, so only subscribers without job name or execution id filters receive it
+    public static StreamEvent workflow(WorkflowDTO dto) {
+        return new StreamEvent("workflow", "workflow:" + dto.getWorkflowId(), null, null, dto.getStatus(), dto);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.schedule_job_runnner.jobrunner.stream;
+
+import java.util.Set;
+
+/**
+ * What a stream subscriber wants to receive. Empty sets match everything.
+ */
+public record SubscriptionFilter(Set<String> jobNames, Set<String> statuses, Set<Long> executionIds) {
+
+    public static final SubscriptionFilter ALL = new SubscriptionFilter(Set.of(), Set.of(), Set.of());
+
+    public SubscriptionFilter {
+        jobNames = jobNames == null ? Set.of() : Set.copyOf(jobNames);
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        executionIds = executionIds == null ? Set.of() : Set.copyOf(executionIds);
+    }
+
+    public boolean matches(StreamEvent event) {
+        // Immutable sets reject contains(null), hence the explicit null checks
+        return (jobNames.isEmpty() || (event.jobName() != null && jobNames.contains(event.jobName())))
+                && (statuses.isEmpty() || event.status() == null || statuses.contains(event.status()))
+                && (executionIds.isEmpty() || (event.executionId() != null && executionIds.contains(event.executionId())));
+    }
+}
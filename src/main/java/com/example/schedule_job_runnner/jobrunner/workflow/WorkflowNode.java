@@ -0,0 +1,20 @@
+package com.example.schedule_job_runnner.jobrunner.workflow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One job of a workflow.
+ *
+ * @param id         unique within the workflow, referenced by {@code dependsOn}
+ * @param jobName    registered job to launch
+ * @param dependsOn  ids of the nodes that must complete before this one is launched
+ * @param parameters job parameters of the launch
+ */
+public record WorkflowNode(String id, String jobName, List<String> dependsOn, Map<String, Object> parameters) {
+
+    public WorkflowNode {
+        dependsOn = dependsOn == null ? List.of() : List.copyOf(dependsOn);
+        parameters = parameters == null ? Map.of() : Map.copyOf(parameters);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.schedule_job_runnner.jobrunner.workflow;
+
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowNodeDTO;
+import org.springframework.batch.core.BatchStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of one workflow run. Transitions hold the run's monitor, and a node that has ended ignores
+ * anything later, so the answer to a launch and the end of the same execution may arrive in either order.
+ * Callers publishing the state hold the monitor across the transition and the publish.
+ */
+class WorkflowRun {
+
+    static final String PENDING = "PENDING";
+    static final String LAUNCHING = "LAUNCHING";
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+    static final String STOPPED = "STOPPED";
+    static final String SKIPPED = "SKIPPED";
+
+    private static final class Node {
+        private final WorkflowNode definition;
+        private final List<Node> dependents = new ArrayList<>();
+        private int waitingOn;
+        private String status = PENDING;
+        private Long executionId;
+        private LocalDateTime startedAt;
+        private LocalDateTime endedAt;
+        private String message;
+
+        private Node(WorkflowNode definition) {
+            this.definition = definition;
+            this.waitingOn = definition.dependsOn().size();
+        }
+
+        private boolean ended() {
+            return !PENDING.equals(status) && !LAUNCHING.equals(status) && !RUNNING.equals(status);
+        }
+    }
+
+    private final String id;
+    private final String name;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private String status = RUNNING;
+    private LocalDateTime endedAt;
+
+    // The nodes must form a validated graph, see WorkflowService
+    WorkflowRun(String id, String name, List<WorkflowNode> definitions) {
+        this.id = id;
+        this.name = name;
+        for (WorkflowNode definition : definitions) {
+            nodes.put(definition.id(), new Node(definition));
+        }
+        for (Node node : nodes.values()) {
+            for (String upstream : node.definition.dependsOn()) {
+                nodes.get(upstream).dependents.add(node);
+            }
+        }
+    }
+
+    String getId() {
+        return id;
+    }
+
+    synchronized boolean isEnded() {
+        return !RUNNING.equals(status);
+    }
+
+    /**
+     * Marks the nodes without dependencies as launching and returns them.
+     */
+    synchronized List<WorkflowNode> start() {
+        List<WorkflowNode> ready = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (node.waitingOn == 0) {
+                node.status = LAUNCHING;
+                ready.add(node.definition);
+            }
+        }
+        return ready;
+    }
+
+    synchronized void launched(String nodeId, Long executionId) {
+        Node node = nodes.get(nodeId);
+        if (LAUNCHING.equals(node.status)) {
+            node.status = RUNNING;
+            node.executionId = executionId;
+            node.startedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Records the end of a node's execution, skipping everything downstream unless it completed.
+     *
+     * @return the nodes this unblocked, marked as launching; empty if the node had already ended
+     */
+    synchronized List<WorkflowNode> finished(String nodeId, Long executionId, BatchStatus batchStatus, String message) {
+        Node node = nodes.get(nodeId);
+        if (node == null || node.ended()) {
+            return List.of();
+        }
+        if (executionId != null) {
+            node.executionId = executionId;
+        }
+        node.status = batchStatus == BatchStatus.COMPLETED ? COMPLETED : batchStatus == BatchStatus.STOPPED ? STOPPED : FAILED;
+        node.endedAt = LocalDateTime.now();
+        node.message = message;
+
+        List<WorkflowNode> ready = new ArrayList<>();
+        for (Node dependent : node.dependents) {
+            if (node.status.equals(COMPLETED)) {
+                if (--dependent.waitingOn == 0 && PENDING.equals(dependent.status)) {
+                    dependent.status = LAUNCHING;
+                    ready.add(dependent.definition);
+                }
+            } else {
+                skip(dependent, nodeId);
+            }
+        }
+        endIfDone();
+        return ready;
+    }
+
+    private void skip(Node node, String cause) {
+        if (!PENDING.equals(node.status)) {
+            return;
+        }
+        node.status = SKIPPED;
+        node.endedAt = LocalDateTime.now();
+        node.message = "Upstream node '" + cause + "' did not complete";
+        for (Node dependent : node.dependents) {
+            skip(dependent, cause);
+        }
+    }
+
+    private void endIfDone() {
+        boolean allCompleted = true;
+        for (Node node : nodes.values()) {
+            if (!node.ended()) {
+                return;
+            }
+            allCompleted &= COMPLETED.equals(node.status);
+        }
+        status = allCompleted ? COMPLETED : FAILED;
+        endedAt = LocalDateTime.now();
+    }
+
+    synchronized WorkflowDTO toDTO() {
+        List<WorkflowNodeDTO> nodeDTOs = new ArrayList<>(nodes.size());
+        for (Node node : nodes.values()) {
+            nodeDTOs.add(WorkflowNodeDTO.builder()
+                    .nodeId(node.definition.id())
+                    .jobName(node.definition.jobName())
+                    .dependsOn(node.definition.dependsOn())
+                    .status(node.status)
+                    .executionId(node.executionId)
+                    .startedAt(node.startedAt)
+                    .endedAt(node.endedAt)
+                    .message(node.message)
+                    .build());
+        }
+        return WorkflowDTO.builder()
+                .workflowId(id)
+                .name(name)
+                .status(status)
+                .createdAt(createdAt)
+                .endedAt(endedAt)
+                .nodes(nodeDTOs)
+                .build();
+    }
+}
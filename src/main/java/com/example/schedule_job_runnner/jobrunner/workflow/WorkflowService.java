@@ -0,0 +1,291 @@
+package com.example.schedule_job_runnner.jobrunner.workflow;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowDTO;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchRejectedException;
+import com.example.schedule_job_runnner.jobrunner.service.JobService;
+import com.example.schedule_job_runnner.jobrunner.stream.ExecutionUpdateHub;
+import com.example.schedule_job_runnner.jobrunner.stream.StreamEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.stereotype.Service;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs workflows: graphs of registered jobs in which a job is launched once every job it depends on
+ * has completed.
+ * <p>
+ * Nodes without pending dependencies are launched together, so independent branches run in parallel.
+ * Each launch carries the workflow and node ids as job parameters, and when the execution ends the job
+ * listener hands it back through {@link #executionFinished}, which launches the nodes it unblocked
+ * straight away instead of waiting for anyone to poll. A launch turned away because the launch queue
+ * is full or the repository is saturated stays LAUNCHING and is retried with backoff. A job that fails,
+ * is stopped or cannot be launched skips everything downstream of it while other branches carry on.
+ * Every change of a run is published on the stream as a {@code workflow} event.
+ * <p>
+ * Runs are held in memory, the last {@value #MAX_ENDED_WORKFLOWS} ended ones stay queryable. A restart
+ * forgets running workflows; their jobs finish but nothing downstream of them is launched.
+ */
+@Slf4j
+@Service
+public class WorkflowService {
+
+    public static final String WORKFLOW_ID_PARAMETER = "workflowId";
+    public static final String WORKFLOW_NODE_PARAMETER = "workflowNode";
+
+    private static final int MAX_NODES = 100;
+    private static final int MAX_ENDED_WORKFLOWS = 1_000;
+    private static final int MAX_LAUNCH_RETRIES = 10;
+    private static final Duration LAUNCH_RETRY_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_LAUNCH_RETRY_BACKOFF = Duration.ofSeconds(10);
+
+    private final JobService jobService;
+    private final JobRegistry jobRegistry;
+    private final ExecutionUpdateHub executionUpdateHub;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, WorkflowRun> runs = new ConcurrentHashMap<>();
+    // Ended runs, oldest first; guarded by itself
+    private final Deque<String> endedRuns = new ArrayDeque<>();
+
+    public WorkflowService(JobService jobService, JobRegistry jobRegistry, ExecutionUpdateHub executionUpdateHub,
+                           MeterRegistry meterRegistry) {
+        this.jobService = jobService;
+        this.jobRegistry = jobRegistry;
+        this.executionUpdateHub = executionUpdateHub;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("jobrunner.workflows.running", this, WorkflowService::getRunningCount)
+                .description("Workflows with jobs still to run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates the graph and launches its first jobs. The launches are answered asynchronously, so the
+     * returned state shows them as LAUNCHING.
+     *
+     * @throws IllegalArgumentException if a node has no id or a duplicate one, names an unknown job or
+     *                                  dependency, or the dependencies contain a cycle
+     */
+    public WorkflowDTO start(String name, List<WorkflowNode> nodes) {
+        validate(nodes);
+        String workflowId = UUID.randomUUID().toString();
+        WorkflowRun run = new WorkflowRun(workflowId, name != null && !name.isBlank() ? name : "workflow", nodes);
+        runs.put(workflowId, run);
+        List<WorkflowNode> ready = run.start();
+        WorkflowDTO dto = run.toDTO();
+        executionUpdateHub.publish(StreamEvent.workflow(dto));
+        log.info("Workflow '{}' ({}) started with {} jobs, launching {}", dto.getName(), workflowId, nodes.size(),
+                ready.stream().map(WorkflowNode::id).toList());
+        launch(run, ready);
+        return dto;
+    }
+
+    public Optional<WorkflowDTO> getWorkflow(String workflowId) {
+        return Optional.ofNullable(runs.get(workflowId)).map(WorkflowRun::toDTO);
+    }
+
+    /**
+     * Running and recently ended workflows, newest first.
+     */
+    public List<WorkflowDTO> getWorkflows() {
+        return runs.values().stream()
+                .map(WorkflowRun::toDTO)
+                .sorted(Comparator.comparing(WorkflowDTO::getCreatedAt).reversed())
+                .toList();
+    }
+
+    public int getRunningCount() {
+        int running = 0;
+        for (WorkflowRun run : runs.values()) {
+            if (!run.isEnded()) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Called once an execution has ended; launches whatever its workflow node was holding back.
+     */
+    public void executionFinished(JobExecution jobExecution) {
+        String workflowId = jobExecution.getJobParameters().getString(WORKFLOW_ID_PARAMETER);
+        String nodeId = jobExecution.getJobParameters().getString(WORKFLOW_NODE_PARAMETER);
+        if (workflowId == null || nodeId == null) {
+            return;
+        }
+        WorkflowRun run = runs.get(workflowId);
+        if (run == null) {
+            log.debug("Execution {} belongs to unknown workflow {}", jobExecution.getId(), workflowId);
+            return;
+        }
+        nodeFinished(run, nodeId, jobExecution.getId(), jobExecution.getStatus(),
+                jobExecution.getStatus() == BatchStatus.COMPLETED ? null : jobExecution.getExitStatus().getExitDescription());
+    }
+
+    private void launch(WorkflowRun run, List<WorkflowNode> nodes) {
+        for (WorkflowNode node : nodes) {
+            Map<String, Object> parameters = new HashMap<>(node.parameters());
+            parameters.put(WORKFLOW_ID_PARAMETER, run.getId());
+            parameters.put(WORKFLOW_NODE_PARAMETER, node.id());
+            jobService.launchJobAsync(node.jobName(), parameters)
+                    .retryWhen(Retry.backoff(MAX_LAUNCH_RETRIES, LAUNCH_RETRY_BACKOFF)
+                            .maxBackoff(MAX_LAUNCH_RETRY_BACKOFF)
+                            .filter(WorkflowService::isTransient)
+                            .doBeforeRetry(signal -> log.debug("Workflow {} retrying launch of node '{}': {}",
+                                    run.getId(), node.id(), signal.failure().getMessage()))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .subscribe(execution -> launched(run, node, execution),
+                            e -> {
+                                log.warn("Workflow {} could not launch job '{}' of node '{}': {}",
+                                        run.getId(), node.jobName(), node.id(), e.getMessage());
+                                nodeFinished(run, node.id(), null, BatchStatus.FAILED, "Launch failed: " + e.getMessage());
+                            });
+        }
+    }
+
+    // Launches turned away for lack of capacity rather than for anything wrong with the job
+    private static boolean isTransient(Throwable e) {
+        return e instanceof JobLaunchRejectedException || e instanceof RejectedExecutionException;
+    }
+
+    private void launched(WorkflowRun run, WorkflowNode node, BatchJobExecutionInfoDTO execution) {
+        BatchStatus status = BatchStatus.valueOf(execution.getStatus());
+        if (status.isRunning()) {
+            synchronized (run) {
+                run.launched(node.id(), execution.getExecutionId());
+                executionUpdateHub.publish(StreamEvent.workflow(run.toDTO()));
+            }
+        } else {
+            run.launched(node.id(), execution.getExecutionId());
+            // Ended before the launch answered, or was rejected by the launch executor without running;
+            // a second report of the same end is ignored
+            nodeFinished(run, node.id(), execution.getExecutionId(), status, execution.getExitDescription());
+        }
+    }
+
+    private void nodeFinished(WorkflowRun run, String nodeId, Long executionId, BatchStatus status, String message) {
+        List<WorkflowNode> ready;
+        WorkflowDTO dto;
+        // Published under the run's monitor: the hub keeps only the latest event per workflow, so
+        // snapshots taken by different threads must reach it in the order they were taken
+        synchronized (run) {
+            ready = run.finished(nodeId, executionId, status, message);
+            dto = run.toDTO();
+            executionUpdateHub.publish(StreamEvent.workflow(dto));
+        }
+        if (!ready.isEmpty()) {
+            log.info("Workflow {} node '{}' ended {}, launching {}", run.getId(), nodeId, status,
+                    ready.stream().map(WorkflowNode::id).toList());
+            launch(run, ready);
+        } else if (run.isEnded() && remember(run)) {
+            log.info("Workflow '{}' ({}) ended {}", dto.getName(), run.getId(), dto.getStatus());
+            Counter.builder("jobrunner.workflows.ended")
+                    .description("Workflows that have ended")
+                    .tag("status", dto.getStatus())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    // False if the run was already recorded as ended
+    private boolean remember(WorkflowRun run) {
+        synchronized (endedRuns) {
+            if (endedRuns.contains(run.getId())) {
+                return false;
+            }
+            endedRuns.addLast(run.getId());
+            while (endedRuns.size() > MAX_ENDED_WORKFLOWS) {
+                runs.remove(endedRuns.removeFirst());
+            }
+            return true;
+        }
+    }
+
+    private void validate(List<WorkflowNode> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("A workflow needs at least one job");
+        }
+        if (nodes.size() > MAX_NODES) {
+            throw new IllegalArgumentException("A workflow has at most " + MAX_NODES + " jobs");
+        }
+        Collection<String> jobNames = jobRegistry.getJobNames();
+        Map<String, WorkflowNode> byId = new HashMap<>();
+        for (WorkflowNode node : nodes) {
+            if (node.id() == null || node.id().isBlank()) {
+                throw new IllegalArgumentException("Every node needs an id");
+            }
+            if (byId.put(node.id(), node) != null) {
+                throw new IllegalArgumentException("Duplicate node id: " + node.id());
+            }
+            if (!jobNames.contains(node.jobName())) {
+                throw new IllegalArgumentException("Unknown job: " + node.jobName());
+            }
+        }
+        for (WorkflowNode node : nodes) {
+            for (String upstream : node.dependsOn()) {
+                if (!byId.containsKey(upstream)) {
+                    throw new IllegalArgumentException("Node '" + node.id() + "' depends on unknown node '" + upstream + "'");
+                }
+                if (upstream.equals(node.id())) {
+                    throw new IllegalArgumentException("Node '" + node.id() + "' depends on itself");
+                }
+            }
+            if (new HashSet<>(node.dependsOn()).size() != node.dependsOn().size()) {
+                throw new IllegalArgumentException("Node '" + node.id() + "' lists a dependency twice");
+            }
+        }
+        // Kahn's algorithm: whatever cannot be ordered is on or behind a cycle
+        Map<String, Integer> waitingOn = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        Deque<String> ready = new ArrayDeque<>();
+        for (WorkflowNode node : nodes) {
+            waitingOn.put(node.id(), node.dependsOn().size());
+            for (String upstream : node.dependsOn()) {
+                dependents.computeIfAbsent(upstream, k -> new ArrayList<>()).add(node.id());
+            }
+            if (node.dependsOn().isEmpty()) {
+                ready.add(node.id());
+            }
+        }
+        int ordered = 0;
+        while (!ready.isEmpty()) {
+            String nodeId = ready.removeFirst();
+            ordered++;
+            for (String dependent : dependents.getOrDefault(nodeId, List.of())) {
+                if (waitingOn.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.addLast(dependent);
+                }
+            }
+        }
+        if (ordered < nodes.size()) {
+            Set<String> cyclic = new HashSet<>();
+            waitingOn.forEach((nodeId, count) -> {
+                if (count > 0) {
+                    cyclic.add(nodeId);
+                }
+            });
+            throw new IllegalArgumentException("Dependencies contain a cycle through " + cyclic);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.schedule_job_runnner.jobrunner.workflow;
+
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowNodeDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowRunTest {
+
+    private static WorkflowNode node(String id, String... dependsOn) {
+        return new WorkflowNode(id, "job", List.of(dependsOn), Map.of());
+    }
+
+    private static WorkflowNodeDTO state(WorkflowRun run, String nodeId) {
+        return run.toDTO().getNodes().stream()
+                .filter(node -> node.getNodeId().equals(nodeId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<String> ids(List<WorkflowNode> nodes) {
+        return nodes.stream().map(WorkflowNode::id).toList();
+    }
+
+    @Test
+    void startLaunchesOnlyNodesWithoutDependencies() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a"), node("b"), node("c", "a", "b")));
+
+        assertThat(ids(run.start())).containsExactly("a", "b");
+        assertThat(state(run, "a").getStatus()).isEqualTo(WorkflowRun.LAUNCHING);
+        assertThat(state(run, "c").getStatus()).isEqualTo(WorkflowRun.PENDING);
+        assertThat(run.isEnded()).isFalse();
+    }
+
+    @Test
+    void nodeIsLaunchedOnceAllOfItsDependenciesCompleted() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a"), node("b"), node("c", "a", "b")));
+        run.start();
+        run.launched("a", 1L);
+        run.launched("b", 2L);
+
+        assertThat(run.finished("a", 1L, BatchStatus.COMPLETED, null)).isEmpty();
+        assertThat(ids(run.finished("b", 2L, BatchStatus.COMPLETED, null))).containsExactly("c");
+        assertThat(state(run, "c").getStatus()).isEqualTo(WorkflowRun.LAUNCHING);
+    }
+
+    @Test
+    void launchAnsweredAfterTheJobEndedKeepsTheEnd() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a")));
+        run.start();
+
+        run.finished("a", 1L, BatchStatus.COMPLETED, null);
+        run.launched("a", 1L);
+
+        WorkflowNodeDTO a = state(run, "a");
+        assertThat(a.getStatus()).isEqualTo(WorkflowRun.COMPLETED);
+        assertThat(a.getExecutionId()).isEqualTo(1L);
+        assertThat(run.toDTO().getStatus()).isEqualTo(WorkflowRun.COMPLETED);
+    }
+
+    @Test
+    void launchAnsweredBeforeTheJobEndedIsRunningUntilTheEnd() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a")));
+        run.start();
+
+        run.launched("a", 1L);
+        assertThat(state(run, "a").getStatus()).isEqualTo(WorkflowRun.RUNNING);
+        assertThat(state(run, "a").getStartedAt()).isNotNull();
+
+        run.finished("a", 1L, BatchStatus.COMPLETED, null);
+        assertThat(state(run, "a").getStatus()).isEqualTo(WorkflowRun.COMPLETED);
+    }
+
+    @Test
+    void secondEndOfTheSameNodeIsIgnored() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a"), node("b", "a")));
+        run.start();
+
+        assertThat(ids(run.finished("a", 1L, BatchStatus.COMPLETED, null))).containsExactly("b");
+        assertThat(run.finished("a", 1L, BatchStatus.FAILED, "late")).isEmpty();
+        assertThat(state(run, "a").getStatus()).isEqualTo(WorkflowRun.COMPLETED);
+        assertThat(state(run, "b").getStatus()).isEqualTo(WorkflowRun.LAUNCHING);
+    }
+
+    @Test
+    void failureSkipsEverythingDownstreamWhileOtherBranchesCarryOn() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(
+                node("a"), node("b", "a"), node("c", "b"), node("x"), node("y", "x")));
+        run.start();
+
+        assertThat(run.finished("a", 1L, BatchStatus.FAILED, "boom")).isEmpty();
+
+        assertThat(state(run, "a").getStatus()).isEqualTo(WorkflowRun.FAILED);
+        assertThat(state(run, "a").getMessage()).isEqualTo("boom");
+        assertThat(state(run, "b").getStatus()).isEqualTo(WorkflowRun.SKIPPED);
+        assertThat(state(run, "c").getStatus()).isEqualTo(WorkflowRun.SKIPPED);
+        assertThat(state(run, "c").getMessage()).contains("'a'");
+        assertThat(run.isEnded()).isFalse();
+
+        assertThat(ids(run.finished("x", 2L, BatchStatus.COMPLETED, null))).containsExactly("y");
+        assertThat(run.isEnded()).isFalse();
+    }
+
+    @Test
+    void nodeWaitingOnAFailedAndACompletedBranchIsSkipped() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a"), node("b"), node("c", "a", "b")));
+        run.start();
+
+        run.finished("a", 1L, BatchStatus.COMPLETED, null);
+        run.finished("b", 2L, BatchStatus.FAILED, "boom");
+
+        assertThat(state(run, "c").getStatus()).isEqualTo(WorkflowRun.SKIPPED);
+        assertThat(run.toDTO().getStatus()).isEqualTo(WorkflowRun.FAILED);
+    }
+
+    @Test
+    void stoppedJobIsRecordedAsStopped() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a"), node("b", "a")));
+        run.start();
+
+        run.finished("a", 1L, BatchStatus.STOPPED, "stopped");
+
+        assertThat(state(run, "a").getStatus()).isEqualTo(WorkflowRun.STOPPED);
+        assertThat(state(run, "b").getStatus()).isEqualTo(WorkflowRun.SKIPPED);
+        assertThat(run.toDTO().getStatus()).isEqualTo(WorkflowRun.FAILED);
+    }
+
+    @Test
+    void workflowCompletesOnlyWhenEveryNodeCompleted() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a"), node("b", "a")));
+        run.start();
+
+        run.finished("a", 1L, BatchStatus.COMPLETED, null);
+        assertThat(run.isEnded()).isFalse();
+        run.finished("b", 2L, BatchStatus.COMPLETED, null);
+
+        WorkflowDTO dto = run.toDTO();
+        assertThat(dto.getStatus()).isEqualTo(WorkflowRun.COMPLETED);
+        assertThat(dto.getEndedAt()).isNotNull();
+        assertThat(run.isEnded()).isTrue();
+    }
+
+    @Test
+    void workflowEndsFailedWhenOnlySomeNodesCompleted() {
+        WorkflowRun run = new WorkflowRun("w", "test", List.of(node("a"), node("b")));
+        run.start();
+
+        run.finished("a", 1L, BatchStatus.COMPLETED, null);
+        run.finished("b", 2L, BatchStatus.FAILED, "boom");
+
+        assertThat(run.toDTO().getStatus()).isEqualTo(WorkflowRun.FAILED);
+        assertThat(run.isEnded()).isTrue();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.schedule_job_runnner.jobrunner.workflow;
+
+import com.example.schedule_job_runnner.jobrunner.dto.BatchJobExecutionInfoDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowDTO;
+import com.example.schedule_job_runnner.jobrunner.dto.WorkflowNodeDTO;
+import com.example.schedule_job_runnner.jobrunner.launch.JobLaunchRejectedException;
+import com.example.schedule_job_runnner.jobrunner.service.JobService;
+import com.example.schedule_job_runnner.jobrunner.stream.ExecutionUpdateHub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.launch.NoSuchJobException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowServiceTest {
+
+    private JobService jobService;
+    private WorkflowService workflowService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = mock(JobService.class);
+        JobRegistry jobRegistry = mock(JobRegistry.class);
+        when(jobRegistry.getJobNames()).thenReturn(List.of("jobA", "jobB"));
+        when(jobService.launchJobAsync(anyString(), anyMap())).thenReturn(Mono.never());
+        workflowService = new WorkflowService(jobService, jobRegistry, mock(ExecutionUpdateHub.class), new SimpleMeterRegistry());
+    }
+
+    private static WorkflowNode node(String id, String jobName, String... dependsOn) {
+        return new WorkflowNode(id, jobName, List.of(dependsOn), Map.of());
+    }
+
+    private static WorkflowNodeDTO state(WorkflowDTO workflow, String nodeId) {
+        return workflow.getNodes().stream()
+                .filter(node -> node.getNodeId().equals(nodeId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private WorkflowDTO current(WorkflowDTO workflow) {
+        return workflowService.getWorkflow(workflow.getWorkflowId()).orElseThrow();
+    }
+
+    private static BatchJobExecutionInfoDTO execution(long executionId, BatchStatus status) {
+        return BatchJobExecutionInfoDTO.builder().executionId(executionId).status(status.name()).build();
+    }
+
+    private static JobExecution finishedExecution(long executionId, String workflowId, String nodeId, BatchStatus status) {
+        JobExecution jobExecution = new JobExecution(new JobInstance(executionId, "jobA"), executionId,
+                new JobParametersBuilder()
+                        .addString(WorkflowService.WORKFLOW_ID_PARAMETER, workflowId)
+                        .addString(WorkflowService.WORKFLOW_NODE_PARAMETER, nodeId)
+                        .toJobParameters());
+        jobExecution.setStatus(status);
+        return jobExecution;
+    }
+
+    @Test
+    void rejectsEmptyWorkflow() {
+        assertThatThrownBy(() -> workflowService.start("w", List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least one job");
+        assertThatThrownBy(() -> workflowService.start("w", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTooManyNodes() {
+        List<WorkflowNode> nodes = IntStream.range(0, 101).mapToObj(i -> node("n" + i, "jobA")).toList();
+
+        assertThatThrownBy(() -> workflowService.start("w", nodes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most 100");
+    }
+
+    @Test
+    void rejectsMissingAndDuplicateIds() {
+        assertThatThrownBy(() -> workflowService.start("w", List.of(node(" ", "jobA"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("needs an id");
+        assertThatThrownBy(() -> workflowService.start("w", List.of(node("a", "jobA"), node("a", "jobB"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate node id: a");
+    }
+
+    @Test
+    void rejectsUnknownJobsAndDependencies() {
+        assertThatThrownBy(() -> workflowService.start("w", List.of(node("a", "missingJob"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown job: missingJob");
+        assertThatThrownBy(() -> workflowService.start("w", List.of(node("a", "jobA", "b"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown node 'b'");
+    }
+
+    @Test
+    void rejectsSelfAndRepeatedDependencies() {
+        assertThatThrownBy(() -> workflowService.start("w", List.of(node("a", "jobA", "a"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("depends on itself");
+        assertThatThrownBy(() -> workflowService.start("w", List.of(node("a", "jobA"), node("b", "jobB", "a", "a"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("lists a dependency twice");
+    }
+
+    @Test
+    void rejectsCyclesAndNamesTheNodesOnThem() {
+        List<WorkflowNode> nodes = List.of(
+                node("root", "jobA"),
+                node("a", "jobA", "root", "c"),
+                node("b", "jobB", "a"),
+                node("c", "jobB", "b"));
+
+        assertThatThrownBy(() -> workflowService.start("w", nodes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Dependencies contain a cycle through")
+                .satisfies(e -> {
+                    String cyclic = e.getMessage().substring(e.getMessage().indexOf('[') + 1, e.getMessage().indexOf(']'));
+                    assertThat(cyclic.split(", ")).containsExactlyInAnyOrder("a", "b", "c");
+                });
+        verify(jobService, never()).launchJobAsync(anyString(), anyMap());
+    }
+
+    @Test
+    void acceptsDiamondAndLaunchesItsRootWithWorkflowParameters() {
+        WorkflowDTO workflow = workflowService.start("diamond", List.of(
+                node("top", "jobA"),
+                node("left", "jobA", "top"),
+                node("right", "jobB", "top"),
+                node("bottom", "jobB", "left", "right")));
+
+        assertThat(workflow.getStatus()).isEqualTo(WorkflowRun.RUNNING);
+        assertThat(state(workflow, "top").getStatus()).isEqualTo(WorkflowRun.LAUNCHING);
+        assertThat(state(workflow, "bottom").getStatus()).isEqualTo(WorkflowRun.PENDING);
+        verify(jobService).launchJobAsync(eq("jobA"), argThat(parameters ->
+                workflow.getWorkflowId().equals(parameters.get(WorkflowService.WORKFLOW_ID_PARAMETER))
+                        && "top".equals(parameters.get(WorkflowService.WORKFLOW_NODE_PARAMETER))));
+    }
+
+    @Test
+    void completedExecutionLaunchesTheNodesItUnblocked() {
+        when(jobService.launchJobAsync(eq("jobA"), anyMap())).thenReturn(Mono.just(execution(1L, BatchStatus.STARTED)));
+        WorkflowDTO workflow = workflowService.start("w", List.of(node("a", "jobA"), node("b", "jobB", "a")));
+        assertThat(state(current(workflow), "a").getStatus()).isEqualTo(WorkflowRun.RUNNING);
+
+        workflowService.executionFinished(finishedExecution(1L, workflow.getWorkflowId(), "a", BatchStatus.COMPLETED));
+
+        assertThat(state(current(workflow), "a").getStatus()).isEqualTo(WorkflowRun.COMPLETED);
+        assertThat(state(current(workflow), "b").getStatus()).isEqualTo(WorkflowRun.LAUNCHING);
+        verify(jobService).launchJobAsync(eq("jobB"), anyMap());
+    }
+
+    @Test
+    void permanentLaunchFailureFailsTheNodeAndSkipsDownstream() {
+        when(jobService.launchJobAsync(eq("jobA"), anyMap())).thenReturn(Mono.error(new NoSuchJobException("gone")));
+
+        WorkflowDTO workflow = workflowService.start("w", List.of(node("a", "jobA"), node("b", "jobB", "a")));
+
+        WorkflowDTO ended = current(workflow);
+        assertThat(state(ended, "a").getStatus()).isEqualTo(WorkflowRun.FAILED);
+        assertThat(state(ended, "a").getMessage()).startsWith("Launch failed");
+        assertThat(state(ended, "b").getStatus()).isEqualTo(WorkflowRun.SKIPPED);
+        assertThat(ended.getStatus()).isEqualTo(WorkflowRun.FAILED);
+        assertThat(workflowService.getRunningCount()).isZero();
+    }
+
+    @Test
+    void rejectedLaunchIsRetriedInsteadOfFailingTheNode() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        when(jobService.launchJobAsync(eq("jobA"), anyMap())).thenReturn(Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.error(new JobLaunchRejectedException("jobA", "queue full"))
+                : Mono.just(execution(1L, BatchStatus.STARTED))));
+
+        WorkflowDTO workflow = workflowService.start("w", List.of(node("a", "jobA")));
+        assertThat(state(current(workflow), "a").getStatus()).isEqualTo(WorkflowRun.LAUNCHING);
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (attempts.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        List<String> statuses = new ArrayList<>();
+        while (System.nanoTime() < deadline) {
+            String status = state(current(workflow), "a").getStatus();
+            statuses.add(status);
+            if (WorkflowRun.RUNNING.equals(status)) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(statuses).last().isEqualTo(WorkflowRun.RUNNING);
+        assertThat(statuses).doesNotContain(WorkflowRun.FAILED);
+    }
+}